@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+#
+# Compares platform and virtual threads on GET /product/{id} and GET /product/search.
+#
+# Starts the service once per mode (MySQL and Redis must be running, as for a normal start), waits
+# for readiness, drives both endpoints with `hey` and writes one summary per run to $OUT_DIR.
+#
+# Usage: scripts/load-test.sh [product-id]
+# Environment: DURATION (default 60s), CONCURRENCY (default 400), OUT_DIR (default target/load-test),
+#              PORT (default 8086), JAR (default: the jar in target/)
+set -euo pipefail
+
+PRODUCT_ID=${1:-1}
+DURATION=${DURATION:-60s}
+CONCURRENCY=${CONCURRENCY:-400}
+OUT_DIR=${OUT_DIR:-target/load-test}
+PORT=${PORT:-8086}
+JAR=${JAR:-$(ls target/*.jar | grep -v plain | head -n 1)}
+BASE_URL="http://localhost:${PORT}"
+
+command -v hey >/dev/null || { echo "hey is required: https://github.com/rakyll/hey" >&2; exit 1; }
+mkdir -p "$OUT_DIR"
+
+run_mode() {
+  local mode=$1 profiles=$2
+  echo "== ${mode}: starting service"
+  java -jar "$JAR" --server.port="$PORT" ${profiles:+--spring.profiles.active=$profiles} \
+    > "$OUT_DIR/${mode}-app.log" 2>&1 &
+  local pid=$!
+  trap "kill $pid 2>/dev/null || true" EXIT
+
+  until curl -fs "${BASE_URL}/actuator/health/readiness" >/dev/null; do
+    kill -0 "$pid" 2>/dev/null || { echo "service exited, see $OUT_DIR/${mode}-app.log" >&2; exit 1; }
+    sleep 1
+  done
+
+  # Warm the JIT and the caches before measuring
+  hey -z 10s -c 50 "${BASE_URL}/product/${PRODUCT_ID}" >/dev/null
+  hey -z 10s -c 50 "${BASE_URL}/product/search?minPrice=0&size=20" >/dev/null
+
+  echo "== ${mode}: GET /product/${PRODUCT_ID}"
+  hey -z "$DURATION" -c "$CONCURRENCY" "${BASE_URL}/product/${PRODUCT_ID}" | tee "$OUT_DIR/${mode}-product-by-id.txt"
+  echo "== ${mode}: GET /product/search"
+  hey -z "$DURATION" -c "$CONCURRENCY" "${BASE_URL}/product/search?minPrice=0&size=20" | tee "$OUT_DIR/${mode}-search.txt"
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+run_mode platform ""
+run_mode virtual virtual-threads
+
+echo
+echo "Requests/sec and p99 latency per run:"
+for file in "$OUT_DIR"/*-product-by-id.txt "$OUT_DIR"/*-search.txt; do
+  printf '%-40s %s  %s\n' "$(basename "$file")" \
+    "$(grep 'Requests/sec' "$file" | awk '{print $2}')" \
+    "$(grep '99%' "$file" | awk '{print $3, $4}')"
+done
@@ -0,0 +1,59 @@
+package com.ecom.productservice.benchmarks;
+
+import com.ecom.productservice.security.JwtProperties;
+import com.ecom.productservice.security.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "MySuperStrongJWTSecretKeyForEcommerceApp123456";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setExpirationMs(86_400_000);
+        jwtService = new JwtService(properties);
+        token = Jwts.builder()
+                .setSubject("bench@example.com")
+                .claim("roles", List.of("USER", "ADMIN"))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + properties.getExpirationMs()))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return jwtService.isValid(token);
+    }
+
+    /** Repeat bearer token: answered from the verified-token cache. */
+    @Benchmark
+    public JwtService.VerifiedToken verify() {
+        return jwtService.verify(token).orElseThrow();
+    }
+
+    /** Full parse and signature check on every call. */
+    @Benchmark
+    public List<String> extractRoles() {
+        return jwtService.extractRoles(token);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecom.productservice.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.helpers.NOPAppender;
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.logging.LogMarkers;
+import com.ecom.productservice.logging.RequestLogSamplingFilter;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Per-request logging cost on the catalog read path ({@code /product/products}): the old
+ * {@code System.out.println("Products from cache: " + products)} against the logging that replaced
+ * it. Logback is configured like the prod profile (async appender, request-line sampling) but
+ * writes to a no-op appender, so the numbers exclude terminal I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingBenchmark.class);
+
+    @Param({"1000"})
+    public int catalogSize;
+
+    private List<ProductResponseDto> products;
+    private PrintStream stdout;
+    private AsyncAppender asyncAppender;
+    private long id;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        products = LongStream.rangeClosed(1, catalogSize)
+                .mapToObj(i -> new ProductResponseDto(i, "Product " + i, "Description of product " + i, 10.0 + i, now, 0))
+                .toList();
+        stdout = new PrintStream(OutputStream.nullOutputStream());
+
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        RequestLogSamplingFilter sampling = new RequestLogSamplingFilter();
+        sampling.setContext(context);
+        sampling.start();
+        context.addTurboFilter(sampling);
+
+        NOPAppender<ILoggingEvent> sink = new NOPAppender<>();
+        sink.setContext(context);
+        sink.start();
+        asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(sink);
+        asyncAppender.start();
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(asyncAppender);
+    }
+
+    @TearDown
+    public void tearDown() {
+        asyncAppender.stop();
+    }
+
+    /** Before: the whole catalog is turned into a string on every request. */
+    @Benchmark
+    public void printlnCatalog() {
+        stdout.println("Products from cache: " + products);
+    }
+
+    /** Concatenation is paid even though DEBUG is off. */
+    @Benchmark
+    public void concatenatedDebugDisabled() {
+        log.debug("Products from cache: " + products);
+    }
+
+    /** After: a guarded DEBUG line; with DEBUG off nothing is formatted or allocated. */
+    @Benchmark
+    public void guardedDebugDisabled() {
+        if (log.isDebugEnabled()) log.debug("Serving {} products from cache", products.size());
+    }
+
+    /** Per-request INFO line without sampling, handed to the async appender. */
+    @Benchmark
+    public void requestLineUnsampled() {
+        log.info("Inside Product controller, Getting product by id {}", ++id);
+    }
+
+    /** Per-request INFO line as in the prod profile: 1 in 100 reaches the appender. */
+    @Benchmark
+    public void requestLineSampled() {
+        log.info(LogMarkers.REQUEST, "Inside Product controller, Getting product by id {}", ++id);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecom.productservice.benchmarks;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.mappers.ProductMapper;
+import com.ecom.productservice.models.Category;
+import com.ecom.productservice.models.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMapperBenchmark {
+
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        Category category = new Category(1L, "Electronics", "Phones, laptops and accessories");
+        product = new Product(42L, "Galaxy S24", "6.2 inch display, 256 GB storage", 799.99, "Samsung", category, 0);
+    }
+
+    @Benchmark
+    public ProductResponseDto toDto() {
+        return ProductMapper.toDto(product);
+    }
+}
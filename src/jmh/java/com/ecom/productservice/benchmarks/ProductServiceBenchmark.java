@@ -0,0 +1,200 @@
+package com.ecom.productservice.benchmarks;
+
+import com.ecom.productservice.cache.CatalogVersionTracker;
+import com.ecom.productservice.cache.CategoryDictionary;
+import com.ecom.productservice.cache.ProductCache;
+import com.ecom.productservice.cache.ProductCacheOutboxProperties;
+import com.ecom.productservice.cache.ProductCacheProperties;
+import com.ecom.productservice.cache.ProductCacheWriteBehind;
+import com.ecom.productservice.cache.SecondLevelCacheEvictor;
+import com.ecom.productservice.configuration.ApplicationConfiguration;
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.exceptions.ProductNotFoundException;
+import com.ecom.productservice.models.Category;
+import com.ecom.productservice.models.Product;
+import com.ecom.productservice.repositories.CategoryRepository;
+import com.ecom.productservice.repositories.ProductCacheOutboxRepository;
+import com.ecom.productservice.repositories.ProductRepository;
+import com.ecom.productservice.search.ProductSuggester;
+import com.ecom.productservice.search.ProductTextIndex;
+import com.ecom.productservice.services.ProductIngestProperties;
+import com.ecom.productservice.services.ProductServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductServiceImpl#getProductById} against an embedded H2 database and an in-memory
+ * stand-in for Redis, for each tier that can answer the lookup:
+ * <ul>
+ *     <li>{@code near}: the in-process near cache</li>
+ *     <li>{@code redis}: near cache disabled, every read is an HGET on the stub hash</li>
+ *     <li>{@code database}: the stub hash drops writes, so every read goes to H2</li>
+ *     <li>{@code l2}: as {@code database}, with the Hibernate second-level and query cache of the
+ *     {@code l2-cache} profile in front of H2 (a cold Redis on an instance running that profile)</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final int PRODUCT_COUNT = 1_000;
+
+    @Param({"near", "redis", "database", "l2"})
+    public String tier;
+
+    private ConfigurableApplicationContext context;
+    private ProductServiceImpl productService;
+    private long[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ProductNotFoundException {
+        context = new SpringApplicationBuilder(PersistenceConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.config.name=benchmark",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "spring.config.import=" + ("l2".equals(tier) ? "classpath:application-l2-cache.properties" : ""))
+                .run();
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+
+        Category category = categoryRepository.save(new Category(1L, "Electronics", "Phones and laptops"));
+        List<Product> products = new ArrayList<>(PRODUCT_COUNT);
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            products.add(new Product(null, "Product " + i, "Description of product " + i, 10.0 + i, "Brand " + (i % 20), category, 0));
+        }
+        ids = productRepository.saveAll(products).stream().mapToLong(Product::getProductId).toArray();
+
+        ProductCacheProperties cacheProperties = new ProductCacheProperties();
+        if (!"near".equals(tier)) cacheProperties.setNearCacheMaxSize(0);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StubRedisTemplate redisTemplate = new StubRedisTemplate(!"database".equals(tier) && !"l2".equals(tier));
+        ProductCache productCache = new ProductCache(redisTemplate, cacheProperties, meterRegistry);
+        CatalogVersionTracker catalogVersionTracker = new CatalogVersionTracker(redisTemplate, cacheProperties);
+        productService = new ProductServiceImpl(productRepository,
+                new CategoryDictionary(categoryRepository, redisTemplate, cacheProperties,
+                        new SecondLevelCacheEvictor(context.getBean(EntityManagerFactory.class))), productCache,
+                catalogVersionTracker,
+                new ProductCacheWriteBehind(context.getBean(ProductCacheOutboxRepository.class), productRepository,
+                        productCache, catalogVersionTracker, new ProductCacheOutboxProperties(), transactionManager,
+                        Runnable::run, meterRegistry),
+                transactionManager,
+                new ProductIngestProperties(),
+                new ProductTextIndex(productRepository, transactionManager, meterRegistry),
+                new ProductSuggester(productRepository, transactionManager, meterRegistry, Duration.ofMinutes(10),
+                        Duration.ofSeconds(30), Duration.ofMinutes(5)),
+                meterRegistry);
+
+        for (long id : ids) {
+            productService.getProductById(id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductResponseDto getProductById() throws ProductNotFoundException {
+        long id = ids[next];
+        next = (next + 1) % ids.length;
+        return productService.getProductById(id);
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = Product.class)
+    @EnableJpaRepositories(basePackageClasses = ProductRepository.class)
+    static class PersistenceConfiguration {
+    }
+
+    /**
+     * Redis template whose product hash is a map of serialized values, so the Redis tier still
+     * pays for deserialization. Only the calls made by {@link ProductCache} on the single-product
+     * paths are implemented: HGET, the versioned put script and the evict script.
+     */
+    static class StubRedisTemplate extends RedisTemplate<String, Object> {
+
+        private final boolean retainWrites;
+        private final Map<String, byte[]> hash = new ConcurrentHashMap<>();
+        private final RedisSerializer<Object> valueSerializer;
+        private final HashOperations<String, Object, Object> hashOperations;
+
+        @SuppressWarnings("unchecked")
+        StubRedisTemplate(boolean retainWrites) {
+            this.retainWrites = retainWrites;
+            RedisTemplate<String, Object> configured = new ApplicationConfiguration().redisTemplate(null, new ProductCacheProperties());
+            valueSerializer = (RedisSerializer<Object>) configured.getHashValueSerializer();
+            setKeySerializer(configured.getKeySerializer());
+            setHashKeySerializer(configured.getHashKeySerializer());
+            setHashValueSerializer(valueSerializer);
+            hashOperations = (HashOperations<String, Object, Object>) Proxy.newProxyInstance(
+                    HashOperations.class.getClassLoader(), new Class<?>[]{HashOperations.class},
+                    (proxy, method, args) -> {
+                        if (!method.getName().equals("get")) throw new UnsupportedOperationException(method.getName());
+                        byte[] value = hash.get((String) args[1]);
+                        return value == null ? null : valueSerializer.deserialize(value);
+                    });
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <HK, HV> HashOperations<String, HK, HV> opsForHash() {
+            return (HashOperations<String, HK, HV>) hashOperations;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, RedisSerializer<?> argsSerializer, RedisSerializer<T> resultSerializer,
+                             List<String> keys, Object... args) {
+            String field = new String((byte[]) args[0], StandardCharsets.UTF_8);
+            if (args.length == 2) {
+                hash.remove(field);
+            } else if (retainWrites) {
+                hash.put(field, (byte[]) args[2]);
+            }
+            return (T) Long.valueOf(1);
+        }
+
+        @Override
+        public Long convertAndSend(String channel, Object message) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ecom.productservice.benchmarks;
+
+import com.ecom.productservice.cache.ProductCacheCodec;
+import com.ecom.productservice.cache.ProductCacheProperties;
+import com.ecom.productservice.configuration.ApplicationConfiguration;
+import com.ecom.productservice.dtos.ProductResponseDto;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing and reading a cached product with the hash value serializer configured in
+ * {@link ApplicationConfiguration}, once per {@link ProductCacheCodec}. The encoded size of the
+ * product is logged once per trial, before warm-up, as {@code bytes/product}; it does not vary, so
+ * it is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisSerializerBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisSerializerBenchmark.class);
+
+    @Param({"JSON", "BINARY"})
+    public ProductCacheCodec codec;
+
+    private RedisSerializer<Object> serializer;
+    private ProductResponseDto product;
+    private byte[] bytes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ProductCacheProperties cacheProperties = new ProductCacheProperties();
+        cacheProperties.setCodec(codec);
+        // The connection factory is only stored by the template, serializers never touch it
+        RedisTemplate<String, Object> template = new ApplicationConfiguration().redisTemplate(null, cacheProperties);
+        serializer = (RedisSerializer<Object>) template.getHashValueSerializer();
+        product = ProductResponseDto.builder()
+                .id(42L)
+                .name("Galaxy S24")
+                .description("6.2 inch display, 256 GB storage")
+                .price(799.99)
+                .build();
+        bytes = serializer.serialize(product);
+        log.info("{}: {} bytes/product", codec, bytes.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(product);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes);
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        return serializer.deserialize(serializer.serialize(product));
+    }
+}
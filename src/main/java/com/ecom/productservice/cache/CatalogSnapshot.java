@@ -0,0 +1,15 @@
+package com.ecom.productservice.cache;
+
+import java.nio.file.Path;
+
+/**
+ * The whole catalog as a gzip-compressed JSON array, written to a local file by
+ * {@link CatalogSnapshotBuilder}.
+ *
+ * @param version  catalog version the snapshot was built for
+ * @param file     the compressed file; never rewritten once the snapshot is published
+ * @param length   size of the file in bytes
+ * @param products number of products in the array
+ */
+public record CatalogSnapshot(CatalogVersion version, Path file, long length, int products) {
+}
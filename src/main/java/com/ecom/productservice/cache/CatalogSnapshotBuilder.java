@@ -0,0 +1,405 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.repositories.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps a gzip-compressed copy of the whole catalog on local disk so {@code GET /product/products}
+ * can be served like a static file.
+ * <p>
+ * The catalog is split by product id into segments of {@value #SEGMENT_SPAN} ids, and each segment
+ * is kept on disk as its own gzip member holding its products' JSON, in id order. A snapshot is the
+ * concatenation of an opening member, the segment members separated by comma members, and a
+ * closing member; gzip readers decompress concatenated members as one stream. Product ids
+ * published on the invalidation channel (by the write-behind dispatcher of any instance, once a
+ * write reached the cache; back-fills publish nothing) mark their segments dirty, and a scheduled
+ * job re-reads and recompresses only those segments, then copies the compressed segments into a
+ * new snapshot file without touching the rest. No product data is held on the heap beyond the
+ * segment being written.
+ * <p>
+ * A snapshot is tagged with the catalog version read before its rows, so it is never newer than
+ * its tag claims; the endpoint only uses a snapshot whose version is current. If the version
+ * moves without any invalidation arriving (a lost message), the catalog is reloaded in full.
+ */
+@Component
+public class CatalogSnapshotBuilder implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotBuilder.class);
+
+    static final long SEGMENT_SPAN = 1000;
+
+    private static final byte[] OPEN = gzip("[");
+    private static final byte[] SEPARATOR = gzip(",");
+    private static final byte[] CLOSE = gzip("]");
+
+    private final ProductRepository productRepository;
+    private final CatalogVersionTracker catalogVersionTracker;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer buildTimer;
+    private final boolean enabled;
+    private final Path baseDirectory;
+    private final Set<Long> dirtyIds = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Guarded by rebuildLock. Non-empty segments by segment number (product id / SEGMENT_SPAN)
+    private TreeMap<Long, Segment> segments = new TreeMap<>();
+    private boolean loaded;
+    private boolean versionMismatchSeen;
+    private Path directory;
+    private Path olderFile;
+    private long builds;
+    private long segmentFiles;
+
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogSnapshotBuilder(ProductRepository productRepository, CatalogVersionTracker catalogVersionTracker,
+                                  RedisTemplate<String, Object> redisTemplate, ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                  @Value("${product.catalog.snapshot.enabled:true}") boolean enabled,
+                                  @Value("${product.catalog.snapshot.directory:${java.io.tmpdir}}") Path baseDirectory) {
+        this.productRepository = productRepository;
+        this.catalogVersionTracker = catalogVersionTracker;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.baseDirectory = baseDirectory;
+        this.buildTimer = Timer.builder("product.catalog.snapshot.build")
+                .description("Time taken to refresh and compress the catalog snapshot")
+                .register(meterRegistry);
+        Gauge.builder("product.catalog.snapshot.bytes", this,
+                        builder -> builder.snapshot != null ? builder.snapshot.length() : 0)
+                .description("Compressed size of the current catalog snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The snapshot built for this catalog version, if it is ready and not empty.
+     */
+    public Optional<CatalogSnapshot> snapshotAt(CatalogVersion version) {
+        CatalogSnapshot current = snapshot;
+        if (current == null || current.products() == 0 || !current.version().equals(version)) {
+            return Optional.empty();
+        }
+        return Optional.of(current);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object payload = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        try {
+            for (String id : String.valueOf(payload).split(",")) {
+                dirtyIds.add(Long.valueOf(id.trim()));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed invalidation message {}", payload);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${product.catalog.snapshot.refresh-interval:PT2S}")
+    public void refresh() {
+        if (!enabled || !rebuildLock.tryLock()) return;
+        long start = System.nanoTime();
+        try {
+            CatalogVersion version = catalogVersionTracker.current();
+            CatalogSnapshot current = snapshot;
+            if (loaded && dirtyIds.isEmpty()) {
+                if (current != null && current.version().equals(version)) {
+                    versionMismatchSeen = false;
+                    return;
+                }
+                // The invalidation behind the new version may still be in flight; give it one more round
+                if (!versionMismatchSeen) {
+                    versionMismatchSeen = true;
+                    return;
+                }
+                log.info("Catalog version {} arrived without invalidations, reloading the snapshot", version.version());
+                loaded = false;
+            }
+            versionMismatchSeen = false;
+            if (directory == null) {
+                Files.createDirectories(baseDirectory);
+                directory = Files.createTempDirectory(baseDirectory, "product-catalog-");
+            }
+            if (!loaded) {
+                reloadAll();
+            } else {
+                reloadDirty();
+            }
+            publish(write(version));
+            buildTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to refresh the catalog snapshot, keeping the current one", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void reloadAll() throws IOException {
+        dirtyIds.clear();
+        TreeMap<Long, Segment> reloaded = new TreeMap<>();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductResponseDto> products = productRepository.streamAllProductsOrderById()) {
+                    writeSegments(products.iterator(), reloaded);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            delete(reloaded.values());
+            throw e;
+        }
+        TreeMap<Long, Segment> replaced = segments;
+        segments = reloaded;
+        loaded = true;
+        delete(replaced.values());
+    }
+
+    /**
+     * Rewrites the segments holding the invalidated ids from the current rows of their id range.
+     * All ranges are read in one read-only transaction, like {@link #reloadAll}, so the segments
+     * rewritten together come from the same replica.
+     */
+    private void reloadDirty() throws IOException {
+        List<Long> ids = new ArrayList<>(dirtyIds);
+        dirtyIds.removeAll(ids);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try {
+                    for (long segment : ids.stream().map(CatalogSnapshotBuilder::segmentOf).collect(Collectors.toCollection(TreeSet::new))) {
+                        reloadSegment(segment);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            dirtyIds.addAll(ids);
+            throw e;
+        }
+    }
+
+    private void reloadSegment(long segment) throws IOException {
+        long fromId = segment * SEGMENT_SPAN;
+        List<ProductResponseDto> products = new ArrayList<>(productRepository.findByIdRange(fromId, fromId + SEGMENT_SPAN - 1));
+        products.sort(Comparator.comparing(ProductResponseDto::getId));
+        TreeMap<Long, Segment> written = new TreeMap<>();
+        writeSegments(products.iterator(), written);
+        // An empty range has no segment: all its products were deleted
+        Segment replaced = written.isEmpty() ? segments.remove(segment) : segments.put(segment, written.get(segment));
+        if (replaced != null) Files.deleteIfExists(replaced.file());
+    }
+
+    /**
+     * Compresses products, given in id order, into one new segment file per segment number.
+     */
+    private void writeSegments(Iterator<ProductResponseDto> products, Map<Long, Segment> written) throws IOException {
+        SegmentWriter writer = null;
+        try {
+            while (products.hasNext()) {
+                ProductResponseDto product = products.next();
+                long segment = segmentOf(product.getId());
+                if (writer != null && writer.segment != segment) {
+                    written.put(writer.segment, writer.finish());
+                    writer = null;
+                }
+                if (writer == null) writer = new SegmentWriter(segment);
+                writer.add(product);
+            }
+            if (writer != null) written.put(writer.segment, writer.finish());
+        } catch (IOException | RuntimeException e) {
+            if (writer != null) writer.discard();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the snapshot to a new file by concatenating the compressed segments; nothing is
+     * recompressed. A published file is never rewritten, because a response may still be sending it.
+     */
+    private CatalogSnapshot write(CatalogVersion version) throws IOException {
+        Path file = directory.resolve("catalog-" + version.version() + "-" + (++builds) + ".json.gz");
+        Path temp = Files.createTempFile(directory, "catalog-", ".tmp");
+        int products = 0;
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writeFully(out, OPEN);
+                boolean first = true;
+                for (Segment segment : segments.values()) {
+                    if (!first) writeFully(out, SEPARATOR);
+                    append(segment.file(), out);
+                    products += segment.products();
+                    first = false;
+                }
+                writeFully(out, CLOSE);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return new CatalogSnapshot(version, file, Files.size(file), products);
+    }
+
+    /**
+     * Swaps the new snapshot in. The file before the one it replaces is deleted; the replaced one
+     * is kept for a round, since a request may have picked it but not opened it yet.
+     */
+    private void publish(CatalogSnapshot built) throws IOException {
+        CatalogSnapshot replaced = snapshot;
+        snapshot = built;
+        if (olderFile != null) Files.deleteIfExists(olderFile);
+        olderFile = replaced != null ? replaced.file() : null;
+        log.debug("Catalog snapshot {} written: {} products, {} bytes", built.file(), built.products(), built.length());
+    }
+
+    @PreDestroy
+    public void deleteFiles() throws IOException {
+        if (directory == null) return;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private byte[] serialize(ProductResponseDto product) {
+        try {
+            return objectMapper.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long segmentOf(long productId) {
+        return Math.floorDiv(productId, SEGMENT_SPAN);
+    }
+
+    private static void delete(Collection<Segment> segments) throws IOException {
+        for (Segment segment : segments) {
+            Files.deleteIfExists(segment.file());
+        }
+    }
+
+    private static void append(Path file, FileChannel out) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            for (long position = 0; position < size; ) {
+                position += in.transferTo(position, size - position, out);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel out, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) out.write(buffer);
+    }
+
+    private static byte[] gzip(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * One compressed segment file and the number of products in it.
+     */
+    private record Segment(Path file, int products) {
+    }
+
+    /**
+     * Writes the products of one segment as a comma separated run of JSON objects into a gzip
+     * member of its own, at the default compression level: segments are recompressed whenever one
+     * of their products changes.
+     */
+    private final class SegmentWriter {
+        private final long segment;
+        private final Path file;
+        private final OutputStream out;
+        private int products;
+
+        private SegmentWriter(long segment) throws IOException {
+            this.segment = segment;
+            this.file = directory.resolve("segment-" + segment + "-" + (++segmentFiles) + ".json.gz");
+            this.out = new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file)), 64 * 1024);
+        }
+
+        private void add(ProductResponseDto product) throws IOException {
+            if (products++ > 0) out.write(',');
+            out.write(serialize(product));
+        }
+
+        private Segment finish() throws IOException {
+            out.close();
+            return new Segment(file, products);
+        }
+
+        private void discard() throws IOException {
+            try {
+                out.close();
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecom.productservice.cache;
+
+/**
+ * Version of the whole product catalog: a counter bumped on every product write and the time of
+ * that write (epoch millis). The modification time is part of the ETag, so a counter that restarts
+ * after Redis loses the key never reproduces an ETag handed out before.
+ */
+public record CatalogVersion(long version, long modifiedAt) {
+
+    public String etag() {
+        return "c" + version + "-" + modifiedAt;
+    }
+
+    /**
+     * Parses the {@code version:modifiedAt} form used in Redis and on the catalog channel.
+     *
+     * @throws IllegalArgumentException if the value is not in that form
+     */
+    static CatalogVersion parse(String value) {
+        int separator = value == null ? -1 : value.indexOf(':');
+        if (separator < 0) throw new IllegalArgumentException("Malformed catalog version: " + value);
+        return new CatalogVersion(Long.parseLong(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+    }
+
+    String encode() {
+        return version + ":" + modifiedAt;
+    }
+}
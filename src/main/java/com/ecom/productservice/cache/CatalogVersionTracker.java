@@ -0,0 +1,115 @@
+package com.ecom.productservice.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks the {@link CatalogVersion} used to answer conditional GETs of the full catalog.
+ * <p>
+ * Redis holds the authoritative value in the {@link #CATALOG_KEY} hash. Every product write bumps
+ * the counter and records the modification time in one script call, then publishes the new value
+ * on the catalog channel. Each instance answers from the last value it saw and re-reads Redis once
+ * that value is older than the near cache TTL, so a lost message delays revalidation by at most
+ * that long.
+ */
+@Component
+public class CatalogVersionTracker implements MessageListener {
+
+    public static final String CATALOG_KEY = "PRODUCT_CATALOG";
+
+    /** KEYS: catalog hash. ARGV: now (epoch millis). Returns the new "version:modifiedAt". */
+    static final RedisScript<String> BUMP = RedisScript.of("""
+            local version = redis.call('HINCRBY', KEYS[1], 'version', 1)
+            redis.call('HSET', KEYS[1], 'modifiedAt', ARGV[1])
+            return version .. ':' .. ARGV[1]
+            """, String.class);
+
+    /** KEYS: catalog hash. ARGV: now (epoch millis), recorded if the catalog has no version yet. */
+    static final RedisScript<String> READ = RedisScript.of("""
+            redis.call('HSETNX', KEYS[1], 'version', 0)
+            redis.call('HSETNX', KEYS[1], 'modifiedAt', ARGV[1])
+            local current = redis.call('HMGET', KEYS[1], 'version', 'modifiedAt')
+            return current[1] .. ':' .. current[2]
+            """, String.class);
+
+    private static final List<String> KEYS = List.of(CATALOG_KEY);
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogVersionTracker.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ProductCacheProperties properties;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    public CatalogVersionTracker(RedisTemplate<String, Object> redisTemplate, ProductCacheProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * The catalog version as last seen by this instance; reads Redis only if that is unknown or
+     * older than the near cache TTL.
+     */
+    public CatalogVersion current() {
+        Snapshot snapshot = current.get();
+        if (snapshot != null && System.nanoTime() - snapshot.fetchedAt() < properties.getNearCacheTtl().toNanos()) {
+            return snapshot.version();
+        }
+        CatalogVersion version = execute(READ);
+        // A message that arrived meanwhile is at least as new as this read
+        current.compareAndSet(snapshot, new Snapshot(version, System.nanoTime()));
+        return version;
+    }
+
+    /**
+     * Records a catalog change. Call after the change is committed to the database.
+     */
+    public CatalogVersion bump() {
+        CatalogVersion version = execute(BUMP);
+        update(version);
+        try {
+            redisTemplate.convertAndSend(properties.getCatalogChannel(), version.encode());
+        } catch (RuntimeException e) {
+            // Other instances pick the new version up on their next periodic read
+            log.warn("Failed to publish catalog version {}", version.version(), e);
+        }
+        return version;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object payload = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        try {
+            update(CatalogVersion.parse(String.valueOf(payload)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed catalog version message {}", payload);
+        }
+    }
+
+    /**
+     * Messages from concurrent writers can arrive out of order, so only a higher version replaces
+     * the current one. A counter reset in Redis is picked up by the periodic read instead.
+     */
+    private void update(CatalogVersion version) {
+        Snapshot latest = new Snapshot(version, System.nanoTime());
+        current.accumulateAndGet(latest, (previous, next) ->
+                previous == null || next.version().version() >= previous.version().version() ? next : previous);
+    }
+
+    private CatalogVersion execute(RedisScript<String> script) {
+        String result = redisTemplate.execute(script, StringRedisSerializer.UTF_8, StringRedisSerializer.UTF_8, KEYS,
+                String.valueOf(System.currentTimeMillis()));
+        return CatalogVersion.parse(result);
+    }
+
+    private record Snapshot(CatalogVersion version, long fetchedAt) {
+    }
+}
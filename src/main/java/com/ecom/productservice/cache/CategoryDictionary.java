@@ -0,0 +1,169 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.models.Category;
+import com.ecom.productservice.repositories.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * All categories held in memory, by id and by name.
+ * <p>
+ * The dictionary is loaded in full on first use and reloaded after every category change: locally
+ * by {@link #changed()}, on other instances through a message on the category channel, and every
+ * {@code product.category.refresh-interval} in case a message was lost. A lookup that misses
+ * checks the database once, so a category added on another instance is usable before its message
+ * arrives. The returned entities are shared and must not be modified.
+ */
+@Component
+public class CategoryDictionary implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryDictionary.class);
+
+    private final CategoryRepository categoryRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ProductCacheProperties properties;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Entries entries;
+
+    public CategoryDictionary(CategoryRepository categoryRepository, RedisTemplate<String, Object> redisTemplate,
+                              ProductCacheProperties properties, SecondLevelCacheEvictor secondLevelCacheEvictor) {
+        this.categoryRepository = categoryRepository;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.secondLevelCacheEvictor = secondLevelCacheEvictor;
+    }
+
+    /**
+     * All categories ordered by id.
+     */
+    public List<Category> all() {
+        return entries().all();
+    }
+
+    /**
+     * ETag of the whole dictionary. It is derived from the content, so every instance computes the
+     * same value for the same categories.
+     */
+    public String etag() {
+        return entries().etag();
+    }
+
+    public Optional<Category> findById(Long id) {
+        if (id == null) return Optional.empty();
+        Category category = entries().byId().get(id);
+        if (category != null) return Optional.of(category);
+        Optional<Category> loaded = categoryRepository.findByCategoryId(id);
+        if (loaded.isPresent()) reload();
+        return loaded;
+    }
+
+    /**
+     * Looks a category up by name, ignoring case like the database collation does.
+     */
+    public Optional<Long> findIdByName(String name) {
+        if (name == null) return Optional.empty();
+        Long id = entries().idsByName().get(name.toLowerCase(Locale.ROOT));
+        if (id != null) return Optional.of(id);
+        Optional<Category> loaded = categoryRepository.findByName(name);
+        if (loaded.isPresent()) reload();
+        return loaded.map(Category::getCategoryId);
+    }
+
+    /**
+     * Reloads the dictionary after a category was added or deleted here, and tells the other
+     * instances to do the same. Call after the change is committed.
+     */
+    public void changed() {
+        reload();
+        try {
+            redisTemplate.convertAndSend(properties.getCategoryChannel(), "changed");
+        } catch (RuntimeException e) {
+            // Other instances pick the change up on their next periodic reload
+            log.warn("Failed to publish category change", e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // The change was made on another instance, so Hibernate has not dropped its cached copies here
+        secondLevelCacheEvictor.evictCategories();
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${product.category.refresh-interval:PT10M}")
+    public void reload() {
+        reloadLock.lock();
+        try {
+            List<Category> categories = categoryRepository.findAll(Sort.by("categoryId"));
+            entries = Entries.of(categories);
+            log.debug("Category dictionary reloaded: {} categories", categories.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to reload the category dictionary, keeping the current one", e);
+            if (entries == null) throw e;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * ETag of a single category, derived from its content.
+     */
+    public static String etag(Category category) {
+        return hash(List.of(category));
+    }
+
+    private Entries entries() {
+        Entries current = entries;
+        if (current == null) {
+            reload();
+            current = entries;
+        }
+        return current;
+    }
+
+    private static String hash(List<Category> categories) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Category category : categories) {
+                digest.update((category.getCategoryId() + "\t" + category.getName() + "\t" + category.getDescription() + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entries(List<Category> all, Map<Long, Category> byId, Map<String, Long> idsByName, String etag) {
+        static Entries of(List<Category> categories) {
+            Map<Long, Category> byId = new HashMap<>();
+            Map<String, Long> idsByName = new HashMap<>();
+            for (Category category : categories) {
+                byId.put(category.getCategoryId(), category);
+                if (category.getName() != null) {
+                    idsByName.putIfAbsent(category.getName().toLowerCase(Locale.ROOT), category.getCategoryId());
+                }
+            }
+            return new Entries(List.copyOf(categories), Map.copyOf(byId), Map.copyOf(idsByName), hash(categories));
+        }
+    }
+}
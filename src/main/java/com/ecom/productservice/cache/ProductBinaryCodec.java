@@ -0,0 +1,196 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Hand-rolled binary encoding of a cached {@link ProductResponseDto}.
+ * <p>
+ * Layout (schema version 3):
+ * <pre>
+ * MAGIC:1 | VERSION:1 | FLAGS:1 | [id: zigzag varint] | [name: varint length + UTF-8] |
+ * [description: varint length + UTF-8] | price: 8 bytes IEEE 754 |
+ * [updatedAt: zigzag varint epoch seconds (UTC) + varint nanos] | row version: varint
+ * </pre>
+ * FLAGS has one bit per nullable field; absent fields take no space. Versions 1 (without
+ * {@code updatedAt}) and 2 (without the row version, read as 0) are still readable. {@link #MAGIC} can never
+ * start a JSON document, which lets readers tell this format apart from the legacy JSON values.
+ */
+public final class ProductBinaryCodec {
+
+    public static final byte MAGIC = (byte) 0xC1;
+    public static final byte VERSION = 3;
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_NAME = 1 << 1;
+    private static final int HAS_DESCRIPTION = 1 << 2;
+    private static final int HAS_UPDATED_AT = 1 << 3;
+
+    private ProductBinaryCodec() {
+    }
+
+    public static boolean isBinary(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == MAGIC;
+    }
+
+    public static byte[] encode(ProductResponseDto product) {
+        byte[] name = utf8(product.getName());
+        byte[] description = utf8(product.getDescription());
+        int flags = (product.getId() != null ? HAS_ID : 0)
+                | (name != null ? HAS_NAME : 0)
+                | (description != null ? HAS_DESCRIPTION : 0)
+                | (product.getUpdatedAt() != null ? HAS_UPDATED_AT : 0);
+
+        Writer out = new Writer(3 + 10 + length(name) + length(description) + 8 + 15 + 10);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(flags);
+        if (product.getId() != null) out.writeVarLong(zigzag(product.getId()));
+        if (name != null) out.writeBytes(name);
+        if (description != null) out.writeBytes(description);
+        out.writeLong(Double.doubleToLongBits(product.getPrice()));
+        if (product.getUpdatedAt() != null) {
+            out.writeVarLong(zigzag(product.getUpdatedAt().toEpochSecond(ZoneOffset.UTC)));
+            out.writeVarLong(product.getUpdatedAt().getNano());
+        }
+        out.writeVarLong(product.getVersion());
+        return out.toByteArray();
+    }
+
+    public static ProductResponseDto decode(byte[] bytes) {
+        if (!isBinary(bytes) || bytes.length < 3) {
+            throw new SerializationException("Not a binary product entry");
+        }
+        Reader in = new Reader(bytes, 1);
+        int version = in.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new SerializationException("Unsupported product entry version " + version);
+        }
+        try {
+            int flags = in.readByte();
+            ProductResponseDto product = new ProductResponseDto();
+            if ((flags & HAS_ID) != 0) product.setId(unzigzag(in.readVarLong()));
+            if ((flags & HAS_NAME) != 0) product.setName(in.readString());
+            if ((flags & HAS_DESCRIPTION) != 0) product.setDescription(in.readString());
+            product.setPrice(Double.longBitsToDouble(in.readLong()));
+            if ((flags & HAS_UPDATED_AT) != 0) {
+                long epochSecond = unzigzag(in.readVarLong());
+                product.setUpdatedAt(LocalDateTime.ofEpochSecond(epochSecond, (int) in.readVarLong(), ZoneOffset.UTC));
+            }
+            if (version >= 3) product.setVersion(in.readVarLong());
+            return product;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new SerializationException("Truncated product entry", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length + 5;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        Writer(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeBytes(byte[] value) {
+            writeVarLong(value.length);
+            ensure(value.length);
+            System.arraycopy(value, 0, buffer, position, value.length);
+            position += value.length;
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        byte[] toByteArray() {
+            return position == buffer.length ? buffer : Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int readByte() {
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = buffer[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new SerializationException("Malformed varint in product entry");
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > buffer.length) {
+                throw new SerializationException("Truncated product entry");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,544 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Two-tier cache for product responses.
+ * <p>
+ * L1 is a bounded, TTL-evicted in-process cache; L2 is the shared Redis "PRODUCTS" hash.
+ * Back-fills ({@link #put}, {@link #putAll}) store what was just read from the database and publish
+ * nothing, since no copy anywhere became stale. Product changes go through {@link #writeChanges},
+ * which writes Redis first and then publishes the product ids on the invalidation channel (comma
+ * separated) so that all instances (this one included) drop their L1 copy.
+ * <p>
+ * Redis writes are versioned: the "PRODUCT_ROW_VERSIONS" hash holds the version of each field (the
+ * product's {@code @Version} column, incremented by every update in the database, so no server
+ * clock is involved), and a Lua script only replaces an entry whose recorded version is not newer.
+ * Deletes leave a tombstone behind that rejects every later write, so that a back-fill racing with
+ * the delete cannot resurrect the product. Product ids are never reused, so the tombstone only has
+ * to outlive such races: {@link #expireTombstones} drops it after {@code product.cache.tombstone-ttl}.
+ * The {@link #COMPLETE_FIELD}
+ * marker lives inside the product hash itself, so it disappears together with the data if the
+ * key is evicted or flushed.
+ * <p>
+ * Lookups are counted per tier ({@code product.cache.gets}, tags tier=near|redis and
+ * result=hit|miss), database loads are timed ({@code product.cache.loads}, tag result) and
+ * {@code product.cache.size} reports the length of the hash.
+ */
+@Component
+public class ProductCache {
+
+    public static final String PRODUCTS_KEY = "PRODUCTS";
+    public static final String VERSIONS_KEY = "PRODUCT_ROW_VERSIONS";
+    /** Sorted set of deleted product fields, scored by deletion time in epoch millis. */
+    public static final String TOMBSTONES_KEY = "PRODUCT_TOMBSTONES";
+    public static final String FIELD_PREFIX = "PRODUCT_";
+    public static final String COMPLETE_FIELD = "__COMPLETE__";
+
+    /** KEYS: product hash, version hash. ARGV: (field, version, value) triples. Returns entries written. */
+    static final RedisScript<Long> PUT_IF_NEWER = RedisScript.of("""
+            local written = 0
+            for i = 1, #ARGV, 3 do
+                local current = tonumber(redis.call('HGET', KEYS[2], ARGV[i]))
+                if current == nil or current <= tonumber(ARGV[i + 1]) then
+                    redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 2])
+                    redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 1])
+                    written = written + 1
+                end
+            end
+            return written
+            """, Long.class);
+
+    /** Recorded version of a deleted product; higher than any row version. */
+    static final String TOMBSTONE = String.valueOf(Long.MAX_VALUE);
+
+    /** KEYS: product hash, version hash, tombstone set. ARGV: field, deletion time in epoch millis. */
+    static final RedisScript<Long> EVICT = RedisScript.of("""
+            redis.call('HDEL', KEYS[1], ARGV[1])
+            redis.call('HSET', KEYS[2], ARGV[1], '%s')
+            redis.call('ZADD', KEYS[3], ARGV[2], ARGV[1])
+            return 1
+            """.formatted(TOMBSTONE), Long.class);
+
+    /**
+     * KEYS: version hash, tombstone set. ARGV: cutoff in epoch millis, maximum tombstones to drop.
+     * Returns the number of tombstones dropped.
+     */
+    static final RedisScript<Long> EXPIRE_TOMBSTONES = RedisScript.of("""
+            local fields = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            for _, field in ipairs(fields) do
+                if redis.call('HGET', KEYS[1], field) == '%s' then
+                    redis.call('HDEL', KEYS[1], field)
+                end
+                redis.call('ZREM', KEYS[2], field)
+            end
+            return #fields
+            """.formatted(TOMBSTONE), Long.class);
+
+    /** KEYS: lock key. ARGV: owner token. Deletes the lock only if this caller still owns it. */
+    static final RedisScript<Long> RELEASE_LOCK = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    static final List<String> KEYS = List.of(PRODUCTS_KEY, VERSIONS_KEY);
+
+    static final List<String> EVICT_KEYS = List.of(PRODUCTS_KEY, VERSIONS_KEY, TOMBSTONES_KEY);
+
+    private static final int TOMBSTONE_EXPIRY_BATCH = 1000;
+
+    static final String LOCK_PREFIX = "PRODUCT_LOCK_";
+
+    private static final Duration LOCK_POLL_INTERVAL = Duration.ofMillis(10);
+
+    private static final byte[] PUT_IF_NEWER_SOURCE = PUT_IF_NEWER.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+    static final RedisSerializer<Long> LONG_RESULT = new GenericToStringSerializer<>(Long.class);
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCache.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ProductCacheProperties properties;
+    private final Cache<Long, NearEntry> nearCache;
+    private final ConcurrentHashMap<Long, CompletableFuture<ProductResponseDto>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Counter nearHits;
+    private final Counter nearMisses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final AtomicLong size = new AtomicLong();
+
+    public ProductCache(RedisTemplate<String, Object> redisTemplate, ProductCacheProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.nearCache = Caffeine.newBuilder()
+                .maximumSize(properties.getNearCacheMaxSize())
+                .expireAfterWrite(properties.getNearCacheTtl())
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.nearHits = getsCounter("near", "hit");
+        this.nearMisses = getsCounter("near", "miss");
+        this.redisHits = getsCounter("redis", "hit");
+        this.redisMisses = getsCounter("redis", "miss");
+        Gauge.builder("product.cache.size", size, AtomicLong::get)
+                .description("Fields in the Redis PRODUCTS hash, refreshed every product.cache.size-refresh-interval")
+                .register(meterRegistry);
+    }
+
+    public static String field(Long id) {
+        return FIELD_PREFIX + id;
+    }
+
+    /**
+     * Looks the product up in the near cache and then in Redis.
+     *
+     * @return the cached product, or {@code null} if neither tier has it
+     */
+    public ProductResponseDto get(Long id) {
+        ProductResponseDto product = getLocal(id);
+        if (product != null) return product;
+        return readThrough(id);
+    }
+
+    /**
+     * Looks up many products: near cache first, then a single HMGET for the rest.
+     *
+     * @return the cached products by id; ids missing from both tiers are absent
+     */
+    public Map<Long, ProductResponseDto> getAll(Collection<Long> ids) {
+        Map<Long, ProductResponseDto> found = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            NearEntry entry = nearCache.getIfPresent(id);
+            if (entry != null) found.put(id, entry.product());
+            else misses.add(id);
+        }
+        nearHits.increment(found.size());
+        nearMisses.increment(misses.size());
+        if (misses.isEmpty()) return found;
+
+        long start = System.nanoTime();
+        List<Object> fields = misses.stream().<Object>map(ProductCache::field).toList();
+        List<Object> values = redisTemplate.opsForHash().multiGet(PRODUCTS_KEY, fields);
+        long loadNanos = System.nanoTime() - start;
+        int hits = 0;
+        for (int i = 0; i < misses.size(); i++) {
+            ProductResponseDto product = (ProductResponseDto) values.get(i);
+            if (product == null) continue;
+            hits++;
+            found.put(misses.get(i), product);
+            nearCache.put(misses.get(i), new NearEntry(product, start, loadNanos));
+        }
+        redisHits.increment(hits);
+        redisMisses.increment(misses.size() - hits);
+        return found;
+    }
+
+    /**
+     * Looks the product up in the near cache, then in Redis, and finally calls {@code loader}
+     * (typically a database read) and writes the result back.
+     * <p>
+     * Concurrent misses for the same id on this instance share one load. With
+     * {@code product.cache.load-lock} enabled, a short Redis lock also keeps other instances from
+     * loading the same product at the same time; they wait for the winner's write instead.
+     * Hot near cache entries are refreshed early with probability growing towards their expiry
+     * (XFetch), so they are rarely all reloaded at the same instant.
+     *
+     * @param loader returns the product, or {@code null} if it does not exist
+     * @return the product, or {@code null} if {@code loader} did not find it
+     */
+    public ProductResponseDto getOrLoad(Long id, Function<Long, ProductResponseDto> loader) {
+        NearEntry entry = nearCache.getIfPresent(id);
+        if (entry != null && !shouldRefreshEarly(entry)) {
+            nearHits.increment();
+            return entry.product();
+        }
+        // An early refresh counts as a miss: it goes on to Redis like one
+        nearMisses.increment();
+        CompletableFuture<ProductResponseDto> load = new CompletableFuture<>();
+        CompletableFuture<ProductResponseDto> existing = inFlight.putIfAbsent(id, load);
+        if (existing != null) return await(existing);
+        try {
+            ProductResponseDto product = readThrough(id);
+            if (product == null) {
+                product = properties.isLoadLock() ? loadWithLock(id, loader) : loadAndPut(id, loader);
+            }
+            load.complete(product);
+            return product;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, load);
+        }
+    }
+
+    /**
+     * Back-fills the product into Redis unless a newer version (or a later delete) is already
+     * recorded. Nothing is published: the product did not change.
+     *
+     * @return whether the entry was written
+     */
+    public boolean put(ProductResponseDto product) {
+        Long written = redisTemplate.execute(PUT_IF_NEWER, RedisSerializer.byteArray(), LONG_RESULT, KEYS,
+                (Object[]) versionedEntry(product));
+        return written != null && written > 0;
+    }
+
+    /**
+     * Back-fills many products in one pipeline, one versioned script call per
+     * {@code writeBatchSize} products. Nothing is published, see {@link #put}.
+     */
+    public void putAll(List<ProductResponseDto> products) {
+        if (products.isEmpty()) return;
+        int batchSize = properties.getWriteBatchSize();
+        byte[][] keys = KEYS.stream().map(this::serializeKey).toArray(byte[][]::new);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int from = 0; from < products.size(); from += batchSize) {
+                List<ProductResponseDto> batch = products.subList(from, Math.min(from + batchSize, products.size()));
+                byte[][] keysAndArgs = new byte[keys.length + batch.size() * 3][];
+                System.arraycopy(keys, 0, keysAndArgs, 0, keys.length);
+                int position = keys.length;
+                for (ProductResponseDto product : batch) {
+                    byte[][] entry = versionedEntry(product);
+                    System.arraycopy(entry, 0, keysAndArgs, position, entry.length);
+                    position += entry.length;
+                }
+                // Plain EVAL: EVALSHA cannot fall back to loading the script inside a pipeline
+                connection.scriptingCommands().eval(PUT_IF_NEWER_SOURCE, ReturnType.INTEGER, keys.length, keysAndArgs);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Applies committed product changes: writes the current state of the changed products,
+     * removes the deleted ones with a tombstone so that later writes of them are rejected, and
+     * publishes a single invalidation message for all of them. Called by the write-behind
+     * dispatcher only, so every message on the invalidation channel stands for a database write.
+     */
+    public void writeChanges(List<ProductResponseDto> changed, Collection<Long> deletedIds) {
+        putAll(changed);
+        for (Long id : deletedIds) {
+            redisTemplate.execute(EVICT, RedisSerializer.byteArray(), LONG_RESULT, EVICT_KEYS,
+                    serializeField(field(id)), ascii(System.currentTimeMillis()));
+        }
+        List<Long> ids = new ArrayList<>(changed.size() + deletedIds.size());
+        changed.forEach(product -> ids.add(product.getId()));
+        ids.addAll(deletedIds);
+        if (ids.isEmpty()) return;
+        nearCache.invalidateAll(ids);
+        publishInvalidation(ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    /**
+     * Drops tombstones older than {@code product.cache.tombstone-ttl}. The deletion time only
+     * decides when a tombstone goes, never the order of writes, so clock skew between instances
+     * just moves the cleanup by that much. Every instance may run it; the script is idempotent.
+     */
+    @Scheduled(fixedDelayString = "${product.cache.tombstone-cleanup-interval:PT5M}")
+    public void expireTombstones() {
+        long cutoff = System.currentTimeMillis() - properties.getTombstoneTtl().toMillis();
+        try {
+            Long dropped;
+            do {
+                dropped = redisTemplate.execute(EXPIRE_TOMBSTONES, RedisSerializer.byteArray(), LONG_RESULT,
+                        List.of(VERSIONS_KEY, TOMBSTONES_KEY), ascii(cutoff), ascii(TOMBSTONE_EXPIRY_BATCH));
+            } while (dropped != null && dropped == TOMBSTONE_EXPIRY_BATCH);
+        } catch (RuntimeException e) {
+            log.warn("Failed to expire product cache tombstones", e);
+        }
+    }
+
+    /**
+     * Whether the product hash holds the whole catalog, i.e. it was filled from the database
+     * and has been kept up to date by the write-behind dispatcher since.
+     */
+    public boolean isComplete() {
+        return redisTemplate.opsForHash().hasKey(PRODUCTS_KEY, COMPLETE_FIELD);
+    }
+
+    /**
+     * Records that the product hash holds the whole catalog. Call only after every product has
+     * been written.
+     */
+    public void markComplete() {
+        redisTemplate.opsForHash().put(PRODUCTS_KEY, COMPLETE_FIELD, String.valueOf(System.currentTimeMillis()));
+    }
+
+    /**
+     * Walks the Redis hash with HSCAN and hands each product to the consumer as it arrives,
+     * so only one scan batch is held in memory at a time. Non-product fields such as the
+     * completeness marker are skipped.
+     *
+     * @return the number of products passed to the consumer
+     */
+    public long scan(Consumer<ProductResponseDto> consumer) {
+        long count = 0;
+        ScanOptions options = ScanOptions.scanOptions().count(properties.getScanBatchSize()).build();
+        try (Cursor<Map.Entry<Object, Object>> cursor = redisTemplate.opsForHash().scan(PRODUCTS_KEY, options)) {
+            while (cursor.hasNext()) {
+                Map.Entry<Object, Object> entry = cursor.next();
+                if (!String.valueOf(entry.getKey()).startsWith(FIELD_PREFIX)) continue;
+                consumer.accept((ProductResponseDto) entry.getValue());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Drops the near cache entry of a product. Called by the invalidation listener.
+     */
+    public void invalidateLocal(Long id) {
+        nearCache.invalidate(id);
+    }
+
+    /**
+     * Re-reads the hash length for the {@code product.cache.size} gauge, so that scrapes never
+     * wait on Redis.
+     */
+    @Scheduled(fixedDelayString = "${product.cache.size-refresh-interval:PT30S}")
+    public void refreshSize() {
+        try {
+            Long length = redisTemplate.opsForHash().size(PRODUCTS_KEY);
+            if (length != null) size.set(length);
+        } catch (RuntimeException e) {
+            // Keep reporting the last known size until Redis answers again
+            log.debug("Failed to read the product cache size", e);
+        }
+    }
+
+    /**
+     * Near cache lookup only; never touches Redis. Used by {@link ReactiveProductCache}.
+     */
+    ProductResponseDto getLocal(Long id) {
+        NearEntry entry = nearCache.getIfPresent(id);
+        (entry != null ? nearHits : nearMisses).increment();
+        return entry != null ? entry.product() : null;
+    }
+
+    /**
+     * Stores a product read from Redis outside this class in the near cache.
+     */
+    void putLocal(ProductResponseDto product, long loadedAt, long loadNanos) {
+        nearCache.put(product.getId(), new NearEntry(product, loadedAt, loadNanos));
+    }
+
+    private ProductResponseDto readThrough(Long id) {
+        long start = System.nanoTime();
+        ProductResponseDto product = (ProductResponseDto) redisTemplate.opsForHash().get(PRODUCTS_KEY, field(id));
+        if (product != null) nearCache.put(id, new NearEntry(product, start, System.nanoTime() - start));
+        recordRedisLookup(product != null);
+        return product;
+    }
+
+    private ProductResponseDto loadAndPut(Long id, Function<Long, ProductResponseDto> loader) {
+        long start = System.nanoTime();
+        ProductResponseDto product;
+        try {
+            product = loader.apply(id);
+        } catch (RuntimeException e) {
+            loadTimer("failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        loadTimer(product != null ? "success" : "not_found").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (product == null) return null;
+        // Keep a rejected (stale) load out of the near cache; Redis already holds a newer version
+        if (put(product)) nearCache.put(id, new NearEntry(product, start, System.nanoTime() - start));
+        return product;
+    }
+
+    private ProductResponseDto loadWithLock(Long id, Function<Long, ProductResponseDto> loader) {
+        String lockKey = LOCK_PREFIX + id;
+        String token = UUID.randomUUID().toString();
+        Duration ttl = properties.getLoadLockTtl();
+        if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, token, ttl))) {
+            try {
+                return loadAndPut(id, loader);
+            } finally {
+                redisTemplate.execute(RELEASE_LOCK, List.of(lockKey), token);
+            }
+        }
+        // Another instance is loading: wait for its write, but never longer than its lock lives
+        long deadline = System.nanoTime() + ttl.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            ProductResponseDto product = readThrough(id);
+            if (product != null) return product;
+        }
+        return loadAndPut(id, loader);
+    }
+
+    /**
+     * XFetch: refresh when {@code now - delta * beta * ln(rand)} passes the expiry, where delta is
+     * how long the entry took to load. Slow-to-load entries start refreshing earlier.
+     */
+    private boolean shouldRefreshEarly(NearEntry entry) {
+        double beta = properties.getEarlyRefreshBeta();
+        if (beta <= 0) return false;
+        long expiresAt = entry.loadedAt() + properties.getNearCacheTtl().toNanos();
+        double gap = -entry.loadNanos() * beta * Math.log(ThreadLocalRandom.current().nextDouble());
+        return System.nanoTime() + gap >= expiresAt;
+    }
+
+    private static ProductResponseDto await(CompletableFuture<ProductResponseDto> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * The (field, version, value) arguments of {@link #PUT_IF_NEWER} for one product.
+     */
+    byte[][] versionedEntry(ProductResponseDto product) {
+        return new byte[][]{
+                serializeField(field(product.getId())),
+                ascii(product.getVersion()),
+                serializeValue(product)
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serializeKey(String key) {
+        return ((RedisSerializer<String>) redisTemplate.getKeySerializer()).serialize(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serializeField(String field) {
+        return ((RedisSerializer<String>) redisTemplate.getHashKeySerializer()).serialize(field);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serializeValue(ProductResponseDto product) {
+        return ((RedisSerializer<Object>) redisTemplate.getHashValueSerializer()).serialize(product);
+    }
+
+    /**
+     * Counts a single-product Redis lookup; also used by the reactive read path.
+     */
+    void recordRedisLookup(boolean hit) {
+        (hit ? redisHits : redisMisses).increment();
+    }
+
+    private Counter getsCounter(String tier, String result) {
+        return Counter.builder("product.cache.gets")
+                .description("Product cache lookups by tier and result")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Timer loadTimer(String result) {
+        return Timer.builder("product.cache.loads")
+                .description("Database loads after a miss in both cache tiers")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static byte[] ascii(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * A near cache value with the {@link System#nanoTime()} it was loaded at and how long the
+     * load took, as needed by early refresh.
+     */
+    private record NearEntry(ProductResponseDto product, long loadedAt, long loadNanos) {
+    }
+
+    private void publishInvalidation(String ids) {
+        try {
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(), ids);
+        } catch (RuntimeException e) {
+            // Other instances fall back to the near cache TTL if the message is lost
+            log.warn("Failed to publish near cache invalidation for products {}", ids, e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecom.productservice.cache;
+
+/**
+ * Encoding used for the values of the Redis "PRODUCTS" hash.
+ */
+public enum ProductCacheCodec {
+    /** Jackson JSON with embedded {@code @class} type information. */
+    JSON,
+    /** Schema-versioned binary layout written by {@link ProductBinaryCodec}. */
+    BINARY
+}
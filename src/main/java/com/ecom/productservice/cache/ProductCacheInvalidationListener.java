@@ -0,0 +1,49 @@
+package com.ecom.productservice.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Receives comma separated product ids published on the invalidation channel and evicts them
+ * from the Hibernate second-level cache and then from the near cache, so that a near cache miss
+ * cannot reload a stale copy from the second-level cache.
+ */
+@Component
+public class ProductCacheInvalidationListener implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCacheInvalidationListener.class);
+
+    private final ProductCache productCache;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+
+    public ProductCacheInvalidationListener(ProductCache productCache, RedisTemplate<String, Object> redisTemplate,
+                                            SecondLevelCacheEvictor secondLevelCacheEvictor) {
+        this.productCache = productCache;
+        this.redisTemplate = redisTemplate;
+        this.secondLevelCacheEvictor = secondLevelCacheEvictor;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object payload = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        List<Long> ids = new ArrayList<>();
+        try {
+            for (String id : String.valueOf(payload).split(",")) {
+                ids.add(Long.valueOf(id.trim()));
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed invalidation message {}", payload);
+            return;
+        }
+        secondLevelCacheEvictor.evictProducts(ids);
+        ids.forEach(productCache::invalidateLocal);
+    }
+}
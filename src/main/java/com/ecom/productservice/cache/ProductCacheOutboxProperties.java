@@ -0,0 +1,19 @@
+package com.ecom.productservice.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product.cache.outbox")
+@Data
+public class ProductCacheOutboxProperties {
+    /** Outbox entries claimed, loaded and written to Redis per transaction. */
+    private int batchSize = 500;
+    /** How often pending entries are looked for without a signal, e.g. those left by another instance. */
+    private Duration pollInterval = Duration.ofSeconds(1);
+    /** Upper bound of the doubling pause between attempts while Redis or the database fails. */
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+}
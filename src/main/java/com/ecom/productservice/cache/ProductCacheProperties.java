@@ -0,0 +1,41 @@
+package com.ecom.productservice.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product.cache")
+@Data
+public class ProductCacheProperties {
+    /** Maximum number of products held in the in-process near cache. */
+    private long nearCacheMaxSize = 10_000;
+    /** How long a near cache entry lives before it is re-read from Redis. */
+    private Duration nearCacheTtl = Duration.ofSeconds(30);
+    /** Redis pub/sub channel used to invalidate near caches on other instances. */
+    private String invalidationChannel = "PRODUCTS_INVALIDATION";
+    /** Redis pub/sub channel carrying the catalog version after each product write. */
+    private String catalogChannel = "PRODUCT_CATALOG_VERSION";
+    /** Redis pub/sub channel telling other instances to reload their category dictionary. */
+    private String categoryChannel = "CATEGORY_CHANGED";
+    /** COUNT hint passed to each HSCAN call when streaming the whole hash. */
+    private int scanBatchSize = 500;
+    /** Number of fields per HMSET when several products are written in one pipeline. */
+    private int writeBatchSize = 200;
+    /** Encoding of new hash values; both encodings are always readable. */
+    private ProductCacheCodec codec = ProductCacheCodec.JSON;
+    /** Take a short Redis lock per product on a cache miss so only one instance loads it from the database. */
+    private boolean loadLock = false;
+    /** Lifetime of the load lock, and how long other instances wait for the lock holder's write. */
+    private Duration loadLockTtl = Duration.ofMillis(250);
+    /** XFetch beta for early near cache refresh; higher refreshes earlier, 0 disables it. */
+    private double earlyRefreshBeta = 1.0;
+    /** How often the product.cache.size gauge re-reads the hash length (HLEN). */
+    private Duration sizeRefreshInterval = Duration.ofSeconds(30);
+    /** How long the tombstone of a deleted product keeps rejecting late writes of it. */
+    private Duration tombstoneTtl = Duration.ofHours(1);
+    /** How often expired tombstones are dropped. */
+    private Duration tombstoneCleanupInterval = Duration.ofMinutes(5);
+}
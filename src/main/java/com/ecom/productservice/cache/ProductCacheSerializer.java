@@ -0,0 +1,39 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Hash value serializer for the product cache.
+ * <p>
+ * Products are written in the configured {@link ProductCacheCodec}; any other value falls back to
+ * the JSON serializer. Reads detect the format from the first byte, so JSON entries written
+ * before a switch to {@link ProductCacheCodec#BINARY} (or by instances still on JSON) keep
+ * working until they are overwritten.
+ */
+public class ProductCacheSerializer implements RedisSerializer<Object> {
+
+    private final ProductCacheCodec codec;
+    private final RedisSerializer<Object> jsonSerializer;
+
+    public ProductCacheSerializer(ProductCacheCodec codec, RedisSerializer<Object> jsonSerializer) {
+        this.codec = codec;
+        this.jsonSerializer = jsonSerializer;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (codec == ProductCacheCodec.BINARY && value instanceof ProductResponseDto product) {
+            return ProductBinaryCodec.encode(product);
+        }
+        return jsonSerializer.serialize(value);
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) return null;
+        if (ProductBinaryCodec.isBinary(bytes)) return ProductBinaryCodec.decode(bytes);
+        return jsonSerializer.deserialize(bytes);
+    }
+}
@@ -0,0 +1,165 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preloads the Redis product hash after startup so the first requests after a deploy or a Redis
+ * flush do not all fall through to the database.
+ * <p>
+ * The id space is split into ranges of {@code chunkSize} ids; {@code parallelism} workers each
+ * take the next range, read it with one query and write it with one pipelined, versioned
+ * {@link ProductCache#putAll}. Versioning makes the preload safe to run while the write paths are
+ * live. The hash is only marked complete if every chunk succeeded. Skipped when the hash is
+ * already complete, e.g. after a deploy that left Redis untouched.
+ */
+@Component
+public class ProductCacheWarmer {
+
+    public enum State { PENDING, RUNNING, COMPLETED, FAILED, SKIPPED }
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCacheWarmer.class);
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final ProductCacheWarmupProperties properties;
+    private final Executor executor;
+    private final Timer warmupTimer;
+    private final Counter productsCounter;
+    private final Counter failedChunksCounter;
+
+    private volatile State state = State.PENDING;
+    private volatile long startedAt;
+    private final AtomicInteger chunksTotal = new AtomicInteger();
+    private final AtomicInteger chunksDone = new AtomicInteger();
+
+    public ProductCacheWarmer(ProductRepository productRepository, ProductCache productCache,
+                              ProductCacheWarmupProperties properties,
+                              @Qualifier("applicationTaskExecutor") Executor executor, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.properties = properties;
+        this.executor = executor;
+        this.warmupTimer = Timer.builder("product.cache.warmup")
+                .description("Time taken to preload the product cache on startup")
+                .register(meterRegistry);
+        this.productsCounter = Counter.builder("product.cache.warmup.products")
+                .description("Products written to the cache by the startup warm-up")
+                .register(meterRegistry);
+        this.failedChunksCounter = Counter.builder("product.cache.warmup.failed.chunks")
+                .register(meterRegistry);
+        Gauge.builder("product.cache.warmup.progress", this, ProductCacheWarmer::progress)
+                .description("Fraction of warm-up chunks written")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (!properties.isEnabled()) {
+            state = State.SKIPPED;
+            return;
+        }
+        startedAt = System.nanoTime();
+        state = State.RUNNING;
+        executor.execute(this::warmUp);
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+        try {
+            if (productCache.isComplete()) {
+                log.info("Product cache already complete, skipping warm-up");
+                state = State.SKIPPED;
+                return;
+            }
+            Long minId = productRepository.findMinProductId();
+            Long maxId = productRepository.findMaxProductId();
+            if (minId == null) {
+                productCache.markComplete();
+                state = State.COMPLETED;
+                return;
+            }
+
+            long chunkSize = properties.getChunkSize();
+            chunksTotal.set((int) ((maxId - minId) / chunkSize + 1));
+            AtomicLong nextFrom = new AtomicLong(minId);
+            AtomicInteger failures = new AtomicInteger();
+            int workers = Math.max(1, Math.min(properties.getParallelism(), chunksTotal.get()));
+            CompletableFuture<?>[] running = new CompletableFuture<?>[workers];
+            for (int i = 0; i < workers; i++) {
+                running[i] = CompletableFuture.runAsync(() -> {
+                    long from;
+                    while ((from = nextFrom.getAndAdd(chunkSize)) <= maxId) {
+                        if (!loadChunk(from, Math.min(from + chunkSize - 1, maxId))) failures.incrementAndGet();
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(running).join();
+
+            if (failures.get() > 0) {
+                log.warn("Product cache warm-up finished with {} of {} chunks failed; not marking the cache complete",
+                        failures.get(), chunksTotal.get());
+                state = State.FAILED;
+                return;
+            }
+            productCache.markComplete();
+            state = State.COMPLETED;
+            log.info("Product cache warmed up: {} products in {} chunks, {} ms", (long) productsCounter.count(),
+                    chunksTotal.get(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (RuntimeException e) {
+            log.error("Product cache warm-up failed", e);
+            state = State.FAILED;
+        } finally {
+            warmupTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private boolean loadChunk(long fromId, long toId) {
+        try {
+            List<ProductResponseDto> products = productRepository.findByIdRange(fromId, toId);
+            productCache.putAll(products);
+            productsCounter.increment(products.size());
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to warm up products {}-{}", fromId, toId, e);
+            failedChunksCounter.increment();
+            return false;
+        } finally {
+            chunksDone.incrementAndGet();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Whether the readiness deadline has passed since the warm-up started.
+     */
+    public boolean isPastDeadline() {
+        return state != State.PENDING && System.nanoTime() - startedAt >= properties.getDeadline().toNanos();
+    }
+
+    public double progress() {
+        int total = chunksTotal.get();
+        if (total > 0) return (double) chunksDone.get() / total;
+        return state == State.PENDING || state == State.RUNNING ? 0 : 1;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecom.productservice.cache;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the readiness group OUT_OF_SERVICE while the product cache warm-up runs, until it ends
+ * or its deadline passes. A failed warm-up reports UP: the service works from the database,
+ * only slower.
+ */
+@Component
+public class ProductCacheWarmupHealthIndicator implements HealthIndicator {
+
+    private final ProductCacheWarmer warmer;
+
+    public ProductCacheWarmupHealthIndicator(ProductCacheWarmer warmer) {
+        this.warmer = warmer;
+    }
+
+    @Override
+    public Health health() {
+        ProductCacheWarmer.State state = warmer.getState();
+        boolean warming = state == ProductCacheWarmer.State.PENDING || state == ProductCacheWarmer.State.RUNNING;
+        Health.Builder builder = warming && !warmer.isPastDeadline() ? Health.outOfService() : Health.up();
+        return builder
+                .withDetail("state", state)
+                .withDetail("progress", warmer.progress())
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecom.productservice.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product.cache.warmup")
+@Data
+public class ProductCacheWarmupProperties {
+    /** Preload the Redis product hash from the database when the application starts. */
+    private boolean enabled = true;
+    /** Width of the product id range loaded and written per chunk. */
+    private int chunkSize = 5000;
+    /** Number of chunks loaded concurrently. */
+    private int parallelism = 4;
+    /** Readiness reports UP after this long even if the warm-up has not finished. */
+    private Duration deadline = Duration.ofMinutes(2);
+}
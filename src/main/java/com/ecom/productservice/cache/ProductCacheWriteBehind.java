@@ -0,0 +1,224 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.models.ProductCacheOutboxEntry;
+import com.ecom.productservice.repositories.ProductCacheOutboxRepository;
+import com.ecom.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Brings the Redis product cache up to date after product writes, off the request thread.
+ * <p>
+ * A write records the changed product ids in the {@code product_cache_outbox} table in its own
+ * transaction ({@link #enqueue}), so a committed change is never lost even if Redis is down or the
+ * instance dies. After the commit the near cache copies on this instance are dropped and the
+ * dispatcher is signalled. It claims the oldest entries in batches, reads the current state of
+ * those products, writes them with one {@link ProductCache#writeChanges} (evicting the ones that
+ * no longer exist and publishing the ids to every instance), bumps the catalog version and deletes
+ * the entries, all in one transaction. If Redis or the database fails, the entries stay and the next attempt waits twice
+ * as long as the last, up to {@code maxRetryBackoff}. Writers never wait for the dispatcher: the
+ * table absorbs bursts and signals coalesce, so at most one drain runs and one more is queued.
+ * A periodic poll picks up entries whose signal was lost or whose instance stopped; it only
+ * claims once a read-only check has found pending entries.
+ * <p>
+ * Metrics: {@code product.cache.outbox.depth} (pending entries), {@code product.cache.outbox.lag}
+ * (age of the oldest pending entry), {@code product.cache.outbox.dispatch} (time per batch) and
+ * {@code product.cache.outbox.failures}.
+ */
+@Component
+public class ProductCacheWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCacheWriteBehind.class);
+
+    private final ProductCacheOutboxRepository outboxRepository;
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final CatalogVersionTracker catalogVersionTracker;
+    private final ProductCacheOutboxProperties properties;
+    private final Executor executor;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer dispatchTimer;
+    private final Counter failures;
+    private final AtomicBoolean drainQueued = new AtomicBoolean();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final AtomicLong depth = new AtomicLong();
+    // Epoch millis of the oldest pending entry, 0 if there is none
+    private final AtomicLong oldestPendingAt = new AtomicLong();
+
+    // System.nanoTime() before which signals start no drain
+    private volatile long retryAt = System.nanoTime();
+    // Guarded by drainLock
+    private Duration backoff = Duration.ZERO;
+
+    public ProductCacheWriteBehind(ProductCacheOutboxRepository outboxRepository, ProductRepository productRepository,
+                                   ProductCache productCache, CatalogVersionTracker catalogVersionTracker,
+                                   ProductCacheOutboxProperties properties, PlatformTransactionManager transactionManager,
+                                   @Qualifier("applicationTaskExecutor") Executor executor, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.catalogVersionTracker = catalogVersionTracker;
+        this.properties = properties;
+        this.executor = executor;
+        // Read-write, so the products are read from the primary and the claimed rows can be deleted.
+        // Always a new transaction: a drain may start from afterCommit of the writer's transaction.
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.dispatchTimer = Timer.builder("product.cache.outbox.dispatch")
+                .description("Time taken to write one batch of changed products to the cache")
+                .register(meterRegistry);
+        this.failures = Counter.builder("product.cache.outbox.failures")
+                .description("Outbox batches that failed and were left for a retry")
+                .register(meterRegistry);
+        Gauge.builder("product.cache.outbox.depth", depth, AtomicLong::get)
+                .description("Product changes not yet written to the cache")
+                .register(meterRegistry);
+        TimeGauge.builder("product.cache.outbox.lag", oldestPendingAt, TimeUnit.MILLISECONDS,
+                        oldest -> oldest.get() == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest.get()))
+                .description("Age of the oldest product change not yet written to the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records that the cache entries of these products have to be updated. Call inside the
+     * transaction that changes them; the dispatcher is signalled once it commits.
+     */
+    public void enqueue(Collection<Long> productIds) {
+        if (productIds.isEmpty()) return;
+        Instant now = Instant.now();
+        outboxRepository.saveAll(productIds.stream().map(id -> new ProductCacheOutboxEntry(id, now)).toList());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCommit(productIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ProductCacheWriteBehind.this.afterCommit(productIds);
+            }
+        });
+    }
+
+    /**
+     * Starts a drain on the task executor unless one is already queued or a retry is pending.
+     */
+    public void signal() {
+        if (System.nanoTime() - retryAt < 0) return;
+        if (drainQueued.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Starts a drain if entries are pending. The check is a read-only query, so an idle outbox
+     * costs no read-write transaction on the primary; a claim transaction is only opened when
+     * there is something to claim. Read from a lagging replica the check may miss the newest
+     * entries, but those were signalled by their writer and are picked up by a later poll at worst.
+     */
+    @Scheduled(fixedDelayString = "${product.cache.outbox.poll-interval:PT1S}")
+    public void poll() {
+        try {
+            Boolean pending = readOnlyTransaction.execute(status -> outboxRepository.findFirstByOrderByIdAsc().isPresent());
+            if (Boolean.TRUE.equals(pending)) signal();
+        } catch (RuntimeException e) {
+            log.debug("Failed to check the product cache outbox for pending entries", e);
+        }
+    }
+
+    /**
+     * Writes batches until the outbox is empty or a batch fails.
+     */
+    void drain() {
+        drainLock.lock();
+        try {
+            // Cleared only once we hold the lock, so a signal arriving meanwhile queues one more drain at most
+            drainQueued.set(false);
+            int batchSize = properties.getBatchSize();
+            int dispatched;
+            do {
+                dispatched = dispatchBatch(batchSize);
+            } while (dispatched == batchSize);
+            backoff = Duration.ZERO;
+        } catch (RuntimeException e) {
+            failures.increment();
+            backoff = backoff.isZero() ? properties.getPollInterval()
+                    : min(backoff.multipliedBy(2), properties.getMaxRetryBackoff());
+            retryAt = System.nanoTime() + backoff.toNanos();
+            log.warn("Failed to write changed products to the cache, retrying in {}", backoff, e);
+        } finally {
+            refreshBacklog();
+            drainLock.unlock();
+        }
+    }
+
+    private int dispatchBatch(int batchSize) {
+        long start = System.nanoTime();
+        Integer dispatched = transaction.execute(status -> {
+            List<ProductCacheOutboxEntry> claimed = outboxRepository.claimOldest(Limit.of(batchSize));
+            if (claimed.isEmpty()) return 0;
+            Set<Long> ids = new LinkedHashSet<>();
+            claimed.forEach(entry -> ids.add(entry.getProductId()));
+            List<ProductResponseDto> products = productRepository.findResponsesByIdIn(ids);
+            // Ids missing from the result were deleted
+            products.forEach(product -> ids.remove(product.getId()));
+            productCache.writeChanges(products, ids);
+            catalogVersionTracker.bump();
+            outboxRepository.deleteAllInBatch(claimed);
+            return claimed.size();
+        });
+        if (dispatched != null && dispatched > 0) dispatchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return dispatched != null ? dispatched : 0;
+    }
+
+    private void afterCommit(Collection<Long> productIds) {
+        // Stop serving this instance's copies now; Redis and the other instances follow with the drain
+        productIds.forEach(productCache::invalidateLocal);
+        signal();
+    }
+
+    private void refreshBacklog() {
+        try {
+            depth.set(outboxRepository.count());
+            oldestPendingAt.set(outboxRepository.findFirstByOrderByIdAsc()
+                    .map(entry -> entry.getCreatedAt().toEpochMilli())
+                    .orElse(0L));
+        } catch (RuntimeException e) {
+            // Keep reporting the last known backlog until the database answers again
+            log.debug("Failed to read the product cache outbox backlog", e);
+        }
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.ecom.productservice.cache.ProductCache.KEYS;
+import static com.ecom.productservice.cache.ProductCache.PRODUCTS_KEY;
+import static com.ecom.productservice.cache.ProductCache.PUT_IF_NEWER;
+import static com.ecom.productservice.cache.ProductCache.field;
+
+/**
+ * Non-blocking view of the {@link ProductCache} tiers for the reactive read path.
+ * <p>
+ * It shares the near cache and the entry encoding of {@link ProductCache}, so both paths see the
+ * same data and the same invalidations; only the Redis round trips go through the reactive client.
+ */
+@Component
+public class ReactiveProductCache {
+
+    private static final RedisElementWriter<byte[]> BYTES = RedisElementWriter.from(RedisSerializer.byteArray());
+    private static final RedisElementReader<Long> LONG_RESULT = RedisElementReader.from(ProductCache.LONG_RESULT);
+
+    private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final ProductCache productCache;
+
+    public ReactiveProductCache(ReactiveRedisTemplate<String, Object> reactiveRedisTemplate, ProductCache productCache) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.productCache = productCache;
+    }
+
+    /**
+     * Looks the product up in the near cache and then in Redis.
+     *
+     * @return the cached product, or an empty {@link Mono} if neither tier has it
+     */
+    public Mono<ProductResponseDto> get(Long id) {
+        return Mono.defer(() -> {
+            ProductResponseDto local = productCache.getLocal(id);
+            if (local != null) return Mono.just(local);
+            long start = System.nanoTime();
+            return reactiveRedisTemplate.<String, Object>opsForHash().get(PRODUCTS_KEY, field(id))
+                    .cast(ProductResponseDto.class)
+                    .doOnNext(product -> productCache.putLocal(product, start, System.nanoTime() - start))
+                    .doOnSuccess(product -> productCache.recordRedisLookup(product != null));
+        });
+    }
+
+    /**
+     * Versioned back-fill, same as {@link ProductCache#put}; publishes nothing.
+     *
+     * @return whether the entry was written
+     */
+    public Mono<Boolean> put(ProductResponseDto product) {
+        return Mono.defer(() -> reactiveRedisTemplate
+                        .execute(PUT_IF_NEWER, KEYS, List.of(productCache.versionedEntry(product)), BYTES, LONG_RESULT)
+                        .next())
+                .map(written -> written > 0)
+                .defaultIfEmpty(false);
+    }
+}
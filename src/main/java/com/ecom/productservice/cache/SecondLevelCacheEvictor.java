@@ -0,0 +1,46 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.models.Category;
+import com.ecom.productservice.models.Product;
+import com.ecom.productservice.repositories.CategoryRepository;
+import com.ecom.productservice.repositories.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Drops Hibernate second-level cache entries made stale by a write on another instance. With the
+ * l2-cache profile each instance holds its own entity and query regions, and Hibernate only
+ * invalidates them for writes it makes itself. Entity data is evicted for the written ids only.
+ * Query results are not tracked per id, so the query region of the written table goes as a whole;
+ * the other table's query results stay. Without the profile the cache is disabled and these calls
+ * do nothing.
+ */
+@Component
+public class SecondLevelCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void evictProducts(Collection<Long> ids) {
+        Cache cache = cache();
+        ids.forEach(id -> cache.evictEntityData(Product.class, id));
+        cache.evictQueryRegion(ProductRepository.QUERY_REGION);
+    }
+
+    public void evictCategories() {
+        Cache cache = cache();
+        cache.evictEntityData(Category.class);
+        cache.evictQueryRegion(CategoryRepository.QUERY_REGION);
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -1,5 +1,11 @@
 package com.ecom.productservice.configuration;
 
+import com.ecom.productservice.cache.CatalogSnapshotBuilder;
+import com.ecom.productservice.cache.CatalogVersionTracker;
+import com.ecom.productservice.cache.CategoryDictionary;
+import com.ecom.productservice.cache.ProductCacheInvalidationListener;
+import com.ecom.productservice.cache.ProductCacheProperties;
+import com.ecom.productservice.cache.ProductCacheSerializer;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
@@ -8,16 +14,23 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class ApplicationConfiguration {
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       ProductCacheProperties cacheProperties) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
@@ -32,9 +45,42 @@ public class ApplicationConfiguration {
 
         template.setConnectionFactory(connectionFactory);
         template.setValueSerializer(serializer);
-        template.setHashValueSerializer(serializer);
+        template.setHashValueSerializer(new ProductCacheSerializer(cacheProperties.getCodec(), serializer));
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
         return template;
     }
+
+    /**
+     * Reactive client for the reactive read path. It reuses the serializers of
+     * {@link #redisTemplate} so both clients read and write the same encoding.
+     */
+    @Bean
+    @SuppressWarnings("unchecked")
+    public ReactiveRedisTemplate<String, Object> reactiveRedisTemplate(ReactiveRedisConnectionFactory connectionFactory,
+                                                                       RedisTemplate<String, Object> redisTemplate) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value((RedisSerializer<Object>) redisTemplate.getValueSerializer())
+                .hashKey(redisTemplate.getHashKeySerializer())
+                .hashValue(redisTemplate.getHashValueSerializer())
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                        ProductCacheInvalidationListener invalidationListener,
+                                                                        CatalogVersionTracker catalogVersionTracker,
+                                                                        CatalogSnapshotBuilder catalogSnapshotBuilder,
+                                                                        CategoryDictionary categoryDictionary,
+                                                                        ProductCacheProperties cacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(invalidationListener, new ChannelTopic(cacheProperties.getInvalidationChannel()));
+        container.addMessageListener(catalogSnapshotBuilder, new ChannelTopic(cacheProperties.getInvalidationChannel()));
+        container.addMessageListener(catalogVersionTracker, new ChannelTopic(cacheProperties.getCatalogChannel()));
+        container.addMessageListener(categoryDictionary, new ChannelTopic(cacheProperties.getCategoryChannel()));
+        return container;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.ecom.productservice.configuration;
+
+import com.ecom.productservice.models.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the product id allocator past the ids already in the {@code product} table before the
+ * application takes traffic. The table was filled with IDENTITY ids before products moved to the
+ * pooled {@code product_seq} generator, and the schema update creates {@code product_seq} starting
+ * at 1, so without this the first inserts on an existing database would reuse existing ids.
+ * <p>
+ * On MySQL Hibernate emulates the sequence with a one-row {@code product_seq(next_val)} table. The
+ * pooled optimizer hands out the {@value Product#ID_ALLOCATION_SIZE} ids below the value it reads,
+ * so {@code next_val} is raised to {@code MAX(product_id) + allocation size}. It is only ever
+ * raised, so it is safe to run on every start while other instances keep inserting. Databases with
+ * native sequences are left alone; seed those with {@code ALTER SEQUENCE} when migrating.
+ */
+@Component
+public class ProductIdSequenceInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIdSequenceInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    // Takes the EntityManagerFactory so that the schema update has created product_seq by now
+    public ProductIdSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        boolean nativeSequences = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().supportsSequences();
+        if (nativeSequences) {
+            log.info("Database has native sequences; product_seq is not seeded");
+            return;
+        }
+        seedTable();
+    }
+
+    /**
+     * Raises {@code product_seq.next_val} so that the next allocated block starts above every
+     * existing product id.
+     */
+    void seedTable() {
+        int updated = jdbcTemplate.update("UPDATE product_seq SET next_val = GREATEST(next_val,"
+                + " (SELECT COALESCE(MAX(product_id), 0) + ? FROM product))", Product.ID_ALLOCATION_SIZE);
+        if (updated == 0) {
+            log.warn("product_seq has no row; product ids may collide until it is seeded above MAX(product_id)");
+        }
+    }
+}
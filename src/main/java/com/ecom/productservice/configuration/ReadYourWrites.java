@@ -0,0 +1,63 @@
+package com.ecom.productservice.configuration;
+
+/**
+ * The read-your-writes state of the caller served by the current thread. {@link ReadYourWritesFilter}
+ * binds it for each request; {@link ReplicaRoutingDataSource} keeps the read-only transactions of a
+ * pinned caller on the primary, and the product reads of a pinned caller skip the caches, which
+ * only follow a write once the write-behind dispatcher has run. Outside a request (scheduled jobs, the write-behind dispatcher,
+ * work handed to other threads) nothing is bound: nothing is pinned and {@link #recordWrite()}
+ * does nothing.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Caller> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * Pins the current caller to the primary: for the rest of this request, and for later requests
+     * of the same caller until the replicas have caught up. Call from product and category
+     * mutations only; other read-write transactions must not move the caller's reads.
+     */
+    public static void recordWrite() {
+        Caller caller = CURRENT.get();
+        if (caller == null || caller.pinned) return;
+        caller.pinned = true;
+        caller.onFirstWrite.run();
+    }
+
+    /**
+     * Whether the current caller wrote recently and must read from the primary.
+     */
+    public static boolean isPinned() {
+        Caller caller = CURRENT.get();
+        return caller != null && caller.pinned;
+    }
+
+    /**
+     * Binds the caller for the current thread until {@link #clear()}.
+     *
+     * @param pinned       whether an earlier request of this caller wrote recently
+     * @param onFirstWrite run on the first {@link #recordWrite()} of an unpinned caller, to carry
+     *                     the pin over to the caller's next requests
+     */
+    static void bind(boolean pinned, Runnable onFirstWrite) {
+        Caller caller = new Caller(onFirstWrite);
+        caller.pinned = pinned;
+        CURRENT.set(caller);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    private static final class Caller {
+        private final Runnable onFirstWrite;
+        private boolean pinned;
+
+        private Caller(Runnable onFirstWrite) {
+            this.onFirstWrite = onFirstWrite;
+        }
+    }
+}
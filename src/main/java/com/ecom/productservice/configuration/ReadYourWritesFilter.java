@@ -0,0 +1,52 @@
+package com.ecom.productservice.configuration;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Carries the read-your-writes pin from a request that changed products or categories to the same
+ * caller's next requests, on any instance. The first write of a request sets a cookie that
+ * expires after {@code read-your-writes-window}; while the caller sends it back, its reads stay
+ * on the primary. Every other caller keeps reading from the replicas. Only the request thread is
+ * pinned, so reads the reactive endpoints run on other threads still use the replicas.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "product-read-primary";
+
+    private final String cookie;
+
+    public ReadYourWritesFilter(Duration readYourWritesWindow) {
+        // Cookie lifetimes are whole seconds; round up so the pin never ends before the window
+        long seconds = Math.max(1, (readYourWritesWindow.toMillis() + 999) / 1000);
+        this.cookie = ResponseCookie.from(COOKIE, "1")
+                .path("/")
+                .maxAge(seconds)
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build()
+                .toString();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Writes happen before the response body is written, so the header still goes out
+        ReadYourWrites.bind(WebUtils.getCookie(request, COOKIE) != null,
+                () -> response.addHeader(HttpHeaders.SET_COOKIE, cookie));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+}
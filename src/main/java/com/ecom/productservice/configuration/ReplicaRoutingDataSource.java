@@ -0,0 +1,35 @@
+package com.ecom.productservice.configuration;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to the primary.
+ * <p>
+ * The target is picked when a statement first needs a connection, so this data source must sit
+ * behind a {@link LazyConnectionDataSourceProxy}: the transaction manager asks for a connection
+ * before the transaction's read-only flag is bound. Read-your-writes is per caller: a caller that
+ * recently changed products or categories is pinned to the primary ({@link ReadYourWrites}), and
+ * its read-only transactions go there too. Read-write transactions by themselves pin nobody.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !ReadYourWrites.isPinned()) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+}
@@ -1,24 +1,32 @@
 package com.ecom.productservice.controllers;
 
 
+import com.ecom.productservice.cache.CategoryDictionary;
 import com.ecom.productservice.dtos.CategoryRequestDto;
 import com.ecom.productservice.exceptions.InvalidCategoryException;
 import com.ecom.productservice.exceptions.ProductNotFoundException;
 import com.ecom.productservice.models.Category;
 import com.ecom.productservice.services.CategoryService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/category")
 /**
  * REST controller for managing product categories.
- * Exposes endpoints to create and delete categories.
+ * Exposes endpoints to create, read and delete categories.
  */
 public class CategoryController {
 
     private final CategoryService categoryService;
 
+    /** Clients may store category responses but must revalidate them on every use. */
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
     /**
      * Constructs the CategoryController with its required service.
      *
@@ -40,6 +48,35 @@ public class CategoryController {
         return ResponseEntity.ok().body(category);
     }
 
+    /**
+     * Lists all categories from the in-memory dictionary.
+     *
+     * @param webRequest used to answer a matching If-None-Match with 304
+     * @return the categories ordered by id, with an ETag over the whole list
+     */
+    @GetMapping
+    public ResponseEntity<List<Category>> getAllCategories(WebRequest webRequest) {
+        // Read the ETag first: if the dictionary reloads in between, the list is newer than its tag, never older
+        String etag = categoryService.getCategoriesEtag();
+        if (webRequest.checkNotModified(etag)) return null;
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(categoryService.getAllCategories());
+    }
+
+    /**
+     * Gets one category from the in-memory dictionary.
+     *
+     * @param id the category identifier
+     * @param webRequest used to answer a matching If-None-Match with 304
+     * @return the category with an ETag over its content
+     * @throws InvalidCategoryException if the category does not exist
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Category> getCategoryById(@PathVariable("id") Long id, WebRequest webRequest) throws InvalidCategoryException {
+        Category category = categoryService.getCategoryById(id);
+        if (webRequest.checkNotModified(CategoryDictionary.etag(category))) return null;
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(category);
+    }
+
     @RequestMapping(method = RequestMethod.DELETE,value = "/delete/{id}")
     /**
      * Deletes a category by its identifier.
@@ -2,20 +2,48 @@ package com.ecom.productservice.controllers;
 
 
 
+import com.ecom.productservice.cache.CatalogSnapshot;
+import com.ecom.productservice.cache.CatalogSnapshotBuilder;
+import com.ecom.productservice.cache.CatalogVersion;
+import com.ecom.productservice.configuration.ReadYourWrites;
 import com.ecom.productservice.dtos.ProductRequestDto;
+import com.ecom.productservice.exceptions.InvalidBatchRequestException;
 import com.ecom.productservice.exceptions.InvalidCategoryException;
+import com.ecom.productservice.exceptions.InvalidCursorException;
+import com.ecom.productservice.exceptions.InvalidSortException;
 import com.ecom.productservice.exceptions.NoProductsFoundException;
+import com.ecom.productservice.exceptions.PartialIngestException;
 import com.ecom.productservice.exceptions.ProductNotFoundException;
 import com.ecom.productservice.models.Product;
 import com.ecom.productservice.dtos.*;
 import com.ecom.productservice.services.ProductService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static com.ecom.productservice.logging.LogMarkers.REQUEST;
 
 @RestController
 @RequestMapping("/product")
@@ -23,68 +51,260 @@ public class ProductController {
 
     private final ProductService productService;
 
+    private final ObjectMapper objectMapper;
+
+    private final CatalogSnapshotBuilder catalogSnapshotBuilder;
+
     private static final Logger log = LoggerFactory.getLogger(ProductController.class);
 
-    public ProductController(ProductService productService) {
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
+    private static final int MAX_TEXT_SEARCH_RESULTS = 100;
+
+    private static final int MAX_SUGGESTIONS = 25;
+
+    /** Clients and CDNs may store product responses but must revalidate them on every use. */
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    // Tomcat sends a file named in these request attributes with sendfile(2) after the servlet returns
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    public ProductController(ProductService productService, ObjectMapper objectMapper,
+                             CatalogSnapshotBuilder catalogSnapshotBuilder) {
         this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.catalogSnapshotBuilder = catalogSnapshotBuilder;
     }
 
     @RequestMapping(method = RequestMethod.POST,value="/add")
     public ResponseEntity<ProductResponseDto> addProduct(@RequestBody ProductRequestDto productDTO) throws InvalidCategoryException {
-        log.info("Inside Product controller, Adding product {}", productDTO);
+        log.info(REQUEST, "Inside Product controller, Adding product {}", productDTO);
         ProductResponseDto _product=productService.addProduct(productDTO);
         return ResponseEntity.ok().body(_product);
     }
 
+    /**
+     * Saves the products chunk by chunk, each chunk in its own transaction. A failure part way is a
+     * 500 that gives how many products were saved, their first and last id, and the index to resend
+     * the rest from.
+     */
     @RequestMapping(method = RequestMethod.POST,value="/add-all")
-    public ResponseEntity<List<ProductResponseDto>> addAllProducts(@RequestBody List<ProductRequestDto> productDTO) throws InvalidCategoryException {
-        log.info("Inside Product controller, Adding all products {}", productDTO);
+    public ResponseEntity<List<ProductResponseDto>> addAllProducts(@RequestBody List<ProductRequestDto> productDTO) throws InvalidCategoryException, PartialIngestException {
+        log.info(REQUEST, "Inside Product controller, Adding {} products", productDTO.size());
         List<ProductResponseDto> products=productService.addAllProducts(productDTO);
         return ResponseEntity.ok().body(products);
     }
 
+    /**
+     * Sends the catalog as a JSON array. Clients that accept gzip get the precompressed snapshot
+     * of the current catalog version, sent from disk with sendfile where the connector supports it.
+     * Otherwise, or while the snapshot is catching up with a write, the array is written while the
+     * catalog is being read, so memory stays flat regardless of catalog size. Nothing is written
+     * until the first product arrives, which keeps the error response intact when there are no
+     * products.
+     * <p>
+     * The ETag and Last-Modified come from the catalog version; a matching If-None-Match is
+     * answered with 304 before the catalog is read. The version only moves once the cache has
+     * caught up with a write, so a caller that just wrote gets neither a 304 nor the snapshot: the
+     * catalog is read from the primary and sent without validators.
+     */
     @RequestMapping(method = RequestMethod.GET,value = "/products")
-    public ResponseEntity<List<ProductResponseDto>> getAllProducts() throws NoProductsFoundException {
-        log.info("Inside Product controller, Getting all products");
-        List<ProductResponseDto> products=productService.getAllProducts();
-        return ResponseEntity.ok().body(products);
+    public void getAllProducts(WebRequest webRequest, HttpServletRequest request, HttpServletResponse response)
+            throws NoProductsFoundException, IOException {
+        log.info(REQUEST, "Inside Product controller, Getting all products");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (ReadYourWrites.isPinned()) {
+            streamCatalog(response);
+            return;
+        }
+        CatalogVersion version = productService.getCatalogVersion();
+        Optional<CatalogSnapshot> snapshot = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))
+                ? catalogSnapshotBuilder.snapshotAt(version)
+                : Optional.empty();
+        // Each encoding is a different representation, so it gets its own ETag
+        String etag = snapshot.isPresent() ? version.etag() + "-gzip" : version.etag();
+        if (webRequest.checkNotModified(etag, version.modifiedAt())) return;
+        if (snapshot.isPresent()) {
+            sendSnapshot(snapshot.get(), request, response);
+            return;
+        }
+        streamCatalog(response);
     }
 
+    /**
+     * Searches products by any combination of category, brand and price range.
+     * Supports the standard page, size and sort parameters (default: 20 per page, by price).
+     * Sorting is limited to price and productId; any other property is a 400.
+     */
     @GetMapping("/search")
-    public ResponseEntity<List<ProductResponseDto>> searchProducts(
+    public Page<ProductResponseDto> searchProducts(
+            @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String brand,
             @RequestParam(required = false) Double minPrice,
-            @RequestParam(required = false) Double maxPrice) {
-        List<ProductResponseDto> products = productService.searchProducts(category, brand, minPrice, maxPrice);
-        return ResponseEntity.ok(products);
+            @RequestParam(required = false) Double maxPrice,
+            @PageableDefault(size = 20, sort = "price") Pageable pageable) throws InvalidSortException {
+        ProductSearchCriteria criteria = new ProductSearchCriteria(categoryId, category, brand, minPrice, maxPrice);
+        return productService.searchProducts(criteria, pageable);
+    }
+
+    /**
+     * Full-text search over name, brand and description, answered from the in-memory index.
+     * Every query word also matches as a prefix, e.g. "pho" finds "phone".
+     */
+    @GetMapping("/search/text")
+    public ResponseEntity<List<ProductResponseDto>> searchProductsByText(@RequestParam("q") String query,
+                                                                         @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(productService.searchProductsByText(query, Math.min(limit, MAX_TEXT_SEARCH_RESULTS)));
+    }
+
+    /**
+     * Typeahead: the most common product names and brands starting with the prefix.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(@RequestParam("prefix") String prefix,
+                                                @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS)));
     }
 
     @GetMapping("/products/page")
     public Page<ProductResponseDto> getAllProductsByPage(@RequestParam("pageNumber") int pageNumber,
                                         @RequestParam("pageSize") int pageSize) {
-        log.info("Inside Product controller, Getting all products by page {}", pageNumber);
+        log.info(REQUEST, "Inside Product controller, Getting all products by page {}", pageNumber);
         return productService.getAllProducts(pageNumber, pageSize);
     }
 
+    /**
+     * Keyset-paginated catalog ordered by price. Pass the returned nextCursor to get the following page.
+     */
+    @GetMapping("/products/scroll")
+    public ResponseEntity<ProductCursorPageDto> getProductsByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                    @RequestParam(value = "pageSize", defaultValue = "20") int pageSize) throws InvalidCursorException {
+        log.info(REQUEST, "Inside Product controller, Getting products after cursor {}", cursor);
+        return ResponseEntity.ok(productService.getProductsAfter(cursor, pageSize));
+    }
+
+    /**
+     * The ETag comes from the product's row version and Last-Modified from its updatedAt. A
+     * matching If-None-Match is answered with 304 without serializing the product, and without a
+     * Redis round trip when the product is in the near cache.
+     */
     @RequestMapping(method = RequestMethod.GET,value = "/{id}")
-    public ResponseEntity<ProductResponseDto> getProductById(@PathVariable("id") Long id) throws ProductNotFoundException {
-        log.info("Inside Product controller, Getting product by id {}", id);
+    public ResponseEntity<ProductResponseDto> getProductById(@PathVariable("id") Long id, WebRequest webRequest) throws ProductNotFoundException {
+        log.info(REQUEST, "Inside Product controller, Getting product by id {}", id);
         ProductResponseDto product=productService.getProductById(id);
-        return ResponseEntity.ok().body(product);
+        String etag = product.getId() + "-" + product.getVersion();
+        boolean notModified = product.getUpdatedAt() != null
+                ? webRequest.checkNotModified(etag, product.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli())
+                : webRequest.checkNotModified(etag);
+        if (notModified) return null;
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(product);
+    }
+
+    /**
+     * Looks up many products in one call. The response has one entry per requested id, in
+     * request order, with {@code found=false} for ids that do not exist.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductBatchItemDto>> getProductsByIds(@RequestBody List<Long> ids) throws InvalidBatchRequestException {
+        log.info(REQUEST, "Inside Product controller, Getting {} products by id", ids.size());
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
     }
 
     @RequestMapping(method = RequestMethod.DELETE,value = "/delete/{id}")
     public ResponseEntity<String> removeProductById(@PathVariable("id") Long id) throws ProductNotFoundException {
-        log.info("Inside Product controller, Removing product by id {}", id);
+        log.info(REQUEST, "Inside Product controller, Removing product by id {}", id);
         productService.removeProductById(id);
         return ResponseEntity.ok().body("product with product id " + id+" has been removed");
     }
 
     @RequestMapping(method = RequestMethod.PATCH,value = "/update")
     public ResponseEntity<ProductResponseDto> updateProduct(@RequestBody UpdateProductRequestDto productRequestDto) throws ProductNotFoundException {
-        log.info("Inside Product controller, Updating product {}", productRequestDto);
+        log.info(REQUEST, "Inside Product controller, Updating product {}", productRequestDto);
         ProductResponseDto product=productService.updateProduct(productRequestDto);
         return ResponseEntity.ok().body(product);
     }
+
+    private void streamCatalog(HttpServletResponse response) throws NoProductsFoundException, IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        JsonArrayStreamer streamer = new JsonArrayStreamer(generator, response);
+        productService.streamAllProducts(streamer);
+        streamer.finish();
+    }
+
+    private static void sendSnapshot(CatalogSnapshot snapshot, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        response.setContentLengthLong(snapshot.length());
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, snapshot.file().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, snapshot.length());
+            return;
+        }
+        try (FileChannel file = FileChannel.open(snapshot.file())) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long sent = 0; sent < snapshot.length(); ) {
+                sent += file.transferTo(sent, snapshot.length() - sent, out);
+            }
+        }
+    }
+
+    /**
+     * Whether the Accept-Encoding header lists gzip (or *) without q=0.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) continue;
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].replace(" ", "").matches("q=0(\\.0{0,3})?")) refused = true;
+            }
+            if (!refused) return true;
+        }
+        return false;
+    }
+
+    private static class JsonArrayStreamer implements Consumer<ProductResponseDto> {
+        private final JsonGenerator generator;
+        private final HttpServletResponse response;
+        private long written;
+
+        JsonArrayStreamer(JsonGenerator generator, HttpServletResponse response) {
+            this.generator = generator;
+            this.response = response;
+        }
+
+        @Override
+        public void accept(ProductResponseDto product) {
+            try {
+                if (written == 0) {
+                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                    generator.writeStartArray();
+                }
+                generator.writeObject(product);
+                if (++written % STREAM_FLUSH_INTERVAL == 0) generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (written == 0) {
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                generator.writeStartArray();
+            }
+            generator.writeEndArray();
+            generator.close();
+        }
+    }
 }
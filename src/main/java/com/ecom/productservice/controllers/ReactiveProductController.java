@@ -0,0 +1,61 @@
+package com.ecom.productservice.controllers;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.dtos.ProductSearchCriteria;
+import com.ecom.productservice.services.ReactiveProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import static com.ecom.productservice.logging.LogMarkers.REQUEST;
+
+/**
+ * Read endpoints for the aggregation gateway with {@link Mono} return types, served by Spring MVC
+ * on the servlet container. The request thread is released while Redis or the database answers,
+ * but the response itself is written with blocking servlet I/O after an async dispatch on a
+ * container thread. These endpoints are not a non-blocking transport, so there is deliberately no
+ * streaming endpoint here: a catalog stream would hold an MVC task executor thread for as long as
+ * the slowest client reads, and would be cut off at the async request timeout. Full catalog
+ * exports use {@code GET /product/products}.
+ */
+@RestController
+@RequestMapping("/product/reactive")
+public class ReactiveProductController {
+
+    private final ReactiveProductService reactiveProductService;
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveProductController.class);
+
+    public ReactiveProductController(ReactiveProductService reactiveProductService) {
+        this.reactiveProductService = reactiveProductService;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ProductResponseDto> getProductById(@PathVariable("id") Long id) {
+        log.info(REQUEST, "Inside Reactive Product controller, Getting product by id {}", id);
+        return reactiveProductService.getProductById(id);
+    }
+
+    /**
+     * Same parameters as {@code GET /product/search}.
+     */
+    @GetMapping("/search")
+    public Mono<Page<ProductResponseDto>> searchProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @PageableDefault(size = 20, sort = "price") Pageable pageable) {
+        ProductSearchCriteria criteria = new ProductSearchCriteria(categoryId, category, brand, minPrice, maxPrice);
+        return reactiveProductService.searchProducts(criteria, pageable);
+    }
+}
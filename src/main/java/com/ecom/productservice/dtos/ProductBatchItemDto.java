@@ -0,0 +1,28 @@
+package com.ecom.productservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One entry of a batch lookup, in the position of the requested id.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductBatchItemDto {
+    private Long id;
+    private boolean found;
+    /** The product, or null when {@code found} is false. */
+    private ProductResponseDto product;
+
+    public static ProductBatchItemDto found(ProductResponseDto product) {
+        return new ProductBatchItemDto(product.getId(), true, product);
+    }
+
+    public static ProductBatchItemDto notFound(Long id) {
+        return new ProductBatchItemDto(id, false, null);
+    }
+}
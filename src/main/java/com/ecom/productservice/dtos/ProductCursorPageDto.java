@@ -0,0 +1,18 @@
+package com.ecom.productservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductCursorPageDto {
+    private List<ProductResponseDto> content;
+    /** Opaque token for the next page, or null when this is the last page. */
+    private String nextCursor;
+}
@@ -2,6 +2,8 @@ package com.ecom.productservice.dtos;
 
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,4 +15,6 @@ public class ProductResponseDto {
     private String name;
     private String description;
     private double price;
+    private LocalDateTime updatedAt;
+    private long version;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.ecom.productservice.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSearchCriteria {
+    private Long categoryId;
+    /** Category name, kept for existing clients. Resolved to an id before querying. */
+    private String category;
+    private String brand;
+    private Double minPrice;
+    private Double maxPrice;
+}
@@ -0,0 +1,7 @@
+package com.ecom.productservice.exceptions;
+
+public class InvalidBatchRequestException extends Exception {
+    public InvalidBatchRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecom.productservice.exceptions;
+
+public class InvalidCursorException extends Exception {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
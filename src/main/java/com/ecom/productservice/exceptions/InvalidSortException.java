@@ -0,0 +1,7 @@
+package com.ecom.productservice.exceptions;
+
+public class InvalidSortException extends Exception {
+    public InvalidSortException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecom.productservice.exceptions;
+
+/**
+ * A bulk ingest failed part way. Chunks are committed one by one, so the products of the chunks
+ * before the failing one are saved: {@link #getSavedCount()} of them, with ids from
+ * {@link #getFirstSavedId()} to {@link #getLastSavedId()}. The request can be resent from
+ * {@link #getResumeFrom()}. The message says the same, so the response stays small however many
+ * products were saved.
+ */
+public class PartialIngestException extends Exception {
+
+    private final int savedCount;
+    private final Long firstSavedId;
+    private final Long lastSavedId;
+    private final int resumeFrom;
+
+    public PartialIngestException(int requested, int savedCount, Long firstSavedId, Long lastSavedId, int resumeFrom,
+                                  Throwable cause) {
+        super("Saved " + savedCount + " of " + requested + " products"
+                + (savedCount > 0 ? " (ids " + firstSavedId + " to " + lastSavedId + ")" : "")
+                + "; resend from index " + resumeFrom, cause);
+        this.savedCount = savedCount;
+        this.firstSavedId = firstSavedId;
+        this.lastSavedId = lastSavedId;
+        this.resumeFrom = resumeFrom;
+    }
+
+    public int getSavedCount() {
+        return savedCount;
+    }
+
+    /**
+     * @return the id of the first saved product, or {@code null} if none was saved
+     */
+    public Long getFirstSavedId() {
+        return firstSavedId;
+    }
+
+    /**
+     * @return the id of the last saved product, or {@code null} if none was saved
+     */
+    public Long getLastSavedId() {
+        return lastSavedId;
+    }
+
+    public int getResumeFrom() {
+        return resumeFrom;
+    }
+}
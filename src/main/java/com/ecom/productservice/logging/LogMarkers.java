@@ -0,0 +1,13 @@
+package com.ecom.productservice.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class LogMarkers {
+
+    /** Per-request log lines (one per API call). Sampled by {@link RequestLogSamplingFilter} in the prod profile. */
+    public static final Marker REQUEST = MarkerFactory.getMarker("REQUEST");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecom.productservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logback turbo filter that keeps one in {@code sampleRate} INFO-or-lower events carrying the
+ * {@code marker} (by default {@link LogMarkers#REQUEST}) and leaves every other event alone.
+ * Turbo filters run before the logging event is built, so a dropped line costs little more
+ * than the level check. Warnings and errors are never sampled.
+ */
+public class RequestLogSamplingFilter extends TurboFilter {
+
+    private String marker = LogMarkers.REQUEST.getName();
+
+    private int sampleRate = 100;
+
+    @Override
+    public FilterReply decide(Marker eventMarker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (eventMarker == null || !isStarted() || level.isGreaterOrEqual(Level.WARN)) return FilterReply.NEUTRAL;
+        if (!eventMarker.contains(marker)) return FilterReply.NEUTRAL;
+        return ThreadLocalRandom.current().nextInt(sampleRate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    @Override
+    public void start() {
+        if (sampleRate < 1) {
+            addError("sampleRate must be at least 1, was " + sampleRate);
+            return;
+        }
+        super.start();
+    }
+
+    public String getMarker() {
+        return marker;
+    }
+
+    public void setMarker(String marker) {
+        this.marker = marker;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
@@ -12,6 +12,8 @@ public class ProductMapper {
                 .name(product.getName())
                 .description(product.getDescription())
                 .price(product.getPrice())
+                .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
                 .build();
     }
 }
\ No newline at end of file
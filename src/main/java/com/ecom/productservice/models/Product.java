@@ -2,27 +2,51 @@ package com.ecom.productservice.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.io.Serializable;
 
 @Data
 @Entity
+// Only cached when the l2-cache profile turns the second-level cache on
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = false)
+@Table(indexes = {
+        @Index(name = "idx_product_price_id", columnList = "price, product_id"),
+        @Index(name = "idx_product_brand_price", columnList = "brand, price"),
+        @Index(name = "idx_product_category_price", columnList = "category_id, price")
+})
 public class Product extends BaseClass implements Serializable   {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence (a table allocator on MySQL) so inserts can be JDBC-batched; seeded above the
+    // existing ids on startup by ProductIdSequenceInitializer
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long productId;
     private String name;
     private String description;
     private double price;
     private String brand;
 
-    @ManyToOne
+    // Lazy: responses never read the category; load it with ProductRepository.getProductByProductId
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Category category;
 
+    // Incremented by Hibernate on every update; orders cache writes independently of any server clock
+    @Version
+    @ColumnDefault("0")
+    private long version;
+
 }
@@ -0,0 +1,33 @@
+package com.ecom.productservice.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A product whose Redis cache entry has to be brought up to date. Written in the same transaction
+ * as the product change and deleted once the cache has been updated.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "product_cache_outbox")
+public class ProductCacheOutboxEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_cache_outbox_seq")
+    @SequenceGenerator(name = "product_cache_outbox_seq", sequenceName = "product_cache_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public ProductCacheOutboxEntry(Long productId, Instant createdAt) {
+        this.productId = productId;
+        this.createdAt = createdAt;
+    }
+}
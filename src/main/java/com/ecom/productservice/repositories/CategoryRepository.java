@@ -2,12 +2,24 @@ package com.ecom.productservice.repositories;
 
 
 import com.ecom.productservice.models.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    /** Query cache region of the cacheable category queries. */
+    String QUERY_REGION = "category-query-results";
+
+    // Cacheable: only takes effect with the l2-cache profile
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_REGION)})
     Optional<Category> findByCategoryId(Long id);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_REGION)})
+    Optional<Category> findByName(String name);
 }
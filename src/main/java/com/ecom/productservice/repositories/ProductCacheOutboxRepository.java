@@ -0,0 +1,31 @@
+package com.ecom.productservice.repositories;
+
+import com.ecom.productservice.models.ProductCacheOutboxEntry;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProductCacheOutboxRepository extends JpaRepository<ProductCacheOutboxEntry, Long> {
+
+    /**
+     * The oldest pending entries, locked until the calling transaction ends. Rows locked by another
+     * instance are skipped (-2 is Hibernate's SKIP LOCKED timeout), so instances never wait on
+     * each other's batches.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT e FROM ProductCacheOutboxEntry e ORDER BY e.id")
+    List<ProductCacheOutboxEntry> claimOldest(Limit limit);
+
+    Optional<ProductCacheOutboxEntry> findFirstByOrderByIdAsc();
+}
@@ -1,29 +1,130 @@
 package com.ecom.productservice.repositories;
 
 
+import com.ecom.productservice.dtos.ProductResponseDto;
 import com.ecom.productservice.models.Product;
+import com.ecom.productservice.search.ProductDocument;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product,Long> {
+public interface ProductRepository extends JpaRepository<Product,Long>, JpaSpecificationExecutor<Product> {
+    /** Query cache region of the cacheable product queries, evicted on its own when products change. */
+    String QUERY_REGION = "product-query-results";
+
     List<Product> findAll();
     Page<Product> findAll(Pageable pageable);
+
+    /**
+     * Product search. Cacheable, including the count query: with the l2-cache profile, results are
+     * kept per filter combination and page until a product is written.
+     */
+    @QueryHints(value = {@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_REGION)}, forCounting = true)
+    Page<Product> findAll(Specification<Product> spec, Pageable pageable);
+
+    /**
+     * Loads the product together with its category in one query, for callers that need the category.
+     */
+    @EntityGraph(attributePaths = "category")
     Optional<Product> getProductByProductId(Long id);
-    @Query("SELECT p FROM Product p WHERE "
-            + "(:category IS NULL OR p.category.name = :category) AND "
-            + "(:brand IS NULL OR p.brand = :brand) AND "
-            + "(:minPrice IS NULL OR p.price >= :minPrice) AND "
-            + "(:maxPrice IS NULL OR p.price <= :maxPrice)")
-    List<Product> findByFilters(@Param("category") String category,
-                                @Param("brand") String brand,
-                                @Param("minPrice") Double minPrice,
-                                @Param("maxPrice") Double maxPrice);
+
+    /**
+     * One product as a response DTO, selecting only the columns the response needs.
+     * Cacheable: with the l2-cache profile, repeated reads of the same id skip the database.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QUERY_REGION)})
+    @Query("SELECT new com.ecom.productservice.dtos.ProductResponseDto(p.productId, p.name, p.description, p.price, p.updatedAt, p.version) "
+            + "FROM Product p WHERE p.productId = :id")
+    Optional<ProductResponseDto> findResponseById(@Param("id") Long id);
+
+    /**
+     * One page of the catalog as response DTOs; the pageable's sort is applied to the product.
+     */
+    @Query(value = "SELECT new com.ecom.productservice.dtos.ProductResponseDto(p.productId, p.name, p.description, p.price, p.updatedAt, p.version) "
+            + "FROM Product p",
+            countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductResponseDto> findAllResponses(Pageable pageable);
+
+    /**
+     * Streams the whole catalog as response DTOs through a JDBC cursor.
+     * Must be consumed inside a transaction and closed by the caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.ecom.productservice.dtos.ProductResponseDto(p.productId, p.name, p.description, p.price, p.updatedAt, p.version) "
+            + "FROM Product p")
+    Stream<ProductResponseDto> streamAllProducts();
+
+    /**
+     * Streams the whole catalog as response DTOs in product id order, which is the primary key
+     * order, so the database does not sort. Must be consumed inside a transaction and closed by the
+     * caller.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.ecom.productservice.dtos.ProductResponseDto(p.productId, p.name, p.description, p.price, p.updatedAt, p.version) "
+            + "FROM Product p ORDER BY p.productId")
+    Stream<ProductResponseDto> streamAllProductsOrderById();
+
+    /**
+     * Streams the searchable fields of every product for building the text index.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.ecom.productservice.search.ProductDocument(p.productId, p.name, p.description, p.price, p.brand, p.updatedAt, p.version) "
+            + "FROM Product p")
+    Stream<ProductDocument> streamSearchDocuments();
+
+    @Query("SELECT MIN(p.productId) FROM Product p")
+    Long findMinProductId();
+
+    @Query("SELECT MAX(p.productId) FROM Product p")
+    Long findMaxProductId();
+
+    /**
+     * One primary-key range of the catalog as response DTOs, used to preload the cache in chunks.
+     */
+    @Query("SELECT new com.ecom.productservice.dtos.ProductResponseDto(p.productId, p.name, p.description, p.price, p.updatedAt, p.version) "
+            + "FROM Product p WHERE p.productId BETWEEN :fromId AND :toId")
+    List<ProductResponseDto> findByIdRange(@Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * The given products as response DTOs; ids that do not exist are left out.
+     */
+    @Query("SELECT new com.ecom.productservice.dtos.ProductResponseDto(p.productId, p.name, p.description, p.price, p.updatedAt, p.version) "
+            + "FROM Product p WHERE p.productId IN :ids")
+    List<ProductResponseDto> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * First page of the (price, productId) keyset ordering. Backed by idx_product_price_id.
+     */
+    @Query("SELECT new com.ecom.productservice.dtos.ProductResponseDto(p.productId, p.name, p.description, p.price, p.updatedAt, p.version) "
+            + "FROM Product p ORDER BY p.price ASC, p.productId ASC")
+    List<ProductResponseDto> findFirstPageByPrice(Limit limit);
+
+    /**
+     * Seeks past the given (price, productId) position instead of using OFFSET, so the cost of a page
+     * does not depend on how deep it is. Issues no count query.
+     */
+    @Query("SELECT new com.ecom.productservice.dtos.ProductResponseDto(p.productId, p.name, p.description, p.price, p.updatedAt, p.version) "
+            + "FROM Product p WHERE (p.price, p.productId) > (:price, :productId) "
+            + "ORDER BY p.price ASC, p.productId ASC")
+    List<ProductResponseDto> findPageByPriceAfter(@Param("price") double price,
+                                                  @Param("productId") Long productId,
+                                                  Limit limit);
 }
@@ -0,0 +1,43 @@
+package com.ecom.productservice.repositories;
+
+import com.ecom.productservice.models.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Building blocks for product searches. Only the predicates a caller actually supplies are added,
+ * so every filter combination gets its own plan instead of a catch-all "(:x IS NULL OR ...)" query.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> hasCategoryId(Long categoryId) {
+        // Compares the category_id foreign key directly, no join to category
+        return (root, query, cb) -> cb.equal(root.get("category").get("categoryId"), categoryId);
+    }
+
+    public static Specification<Product> hasBrand(String brand) {
+        return (root, query, cb) -> cb.equal(root.get("brand"), brand);
+    }
+
+    public static Specification<Product> priceAtLeast(double minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(double maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Product> matching(Long categoryId, String brand, Double minPrice, Double maxPrice) {
+        List<Specification<Product>> predicates = new ArrayList<>(4);
+        if (categoryId != null) predicates.add(hasCategoryId(categoryId));
+        if (brand != null) predicates.add(hasBrand(brand));
+        if (minPrice != null) predicates.add(priceAtLeast(minPrice));
+        if (maxPrice != null) predicates.add(priceAtMost(maxPrice));
+        return Specification.allOf(predicates);
+    }
+}
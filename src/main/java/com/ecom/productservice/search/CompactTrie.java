@@ -0,0 +1,181 @@
+package com.ecom.productservice.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable weighted trie flattened into primitive arrays for prefix completion.
+ * <p>
+ * Nodes are laid out breadth first with the children of a node stored contiguously and sorted by
+ * label, so a child lookup is a binary search. Every node also stores the highest weight found
+ * below it, which lets {@link #complete} walk the subtree best first and stop after k results
+ * instead of visiting every completion. A key may carry several values ("phone" leads to every name
+ * with a word starting "phone"); the values of a node are stored contiguously as well.
+ */
+public final class CompactTrie {
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] firstEntry;
+    private final int[] entryCount;
+    private final int[] maxWeight;
+    private final String[] values;
+    private final int[] weights;
+
+    private CompactTrie(char[] labels, int[] firstChild, int[] childCount, int[] firstEntry, int[] entryCount,
+                        int[] maxWeight, String[] values, int[] weights) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.firstEntry = firstEntry;
+        this.entryCount = entryCount;
+        this.maxWeight = maxWeight;
+        this.values = values;
+        this.weights = weights;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int nodeCount() {
+        return labels.length;
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Returns up to {@code limit} distinct values whose keys start with {@code prefix}, highest weight first.
+     */
+    public List<String> complete(String prefix, int limit) {
+        int node = 0;
+        for (int i = 0; i < prefix.length() && node >= 0; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        if (node < 0 || limit <= 0) return List.of();
+
+        // Queue items are node indexes (>= 0) or completed entries encoded as -(entry + 1)
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> Long.compare(b[0], a[0]));
+        queue.add(new long[]{maxWeight[node], node});
+        List<String> results = new ArrayList<>(limit);
+        Set<String> seen = new HashSet<>();
+        while (!queue.isEmpty() && results.size() < limit) {
+            long[] item = queue.poll();
+            int index = (int) item[1];
+            if (index < 0) {
+                String value = values[-index - 1];
+                if (seen.add(value)) results.add(value);
+                continue;
+            }
+            for (int e = firstEntry[index]; e < firstEntry[index] + entryCount[index]; e++) {
+                queue.add(new long[]{weights[e], -(e + 1L)});
+            }
+            for (int c = firstChild[index]; c < firstChild[index] + childCount[index]; c++) {
+                queue.add(new long[]{maxWeight[c], c});
+            }
+        }
+        return results;
+    }
+
+    private int child(int node, char label) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (labels[mid] < label) low = mid + 1;
+            else if (labels[mid] > label) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * Collects keys in a temporary pointer-based trie, then flattens it. Different values under the
+     * same key are all kept; adding the same key and value twice keeps the higher weight.
+     */
+    public static final class Builder {
+
+        private final BuildNode root = new BuildNode('\0');
+
+        public Builder add(String key, String value, int weight) {
+            BuildNode node = root;
+            for (int i = 0; i < key.length(); i++) {
+                char label = key.charAt(i);
+                node = node.children.computeIfAbsent(label, BuildNode::new);
+            }
+            node.entries.merge(value, weight, Math::max);
+            return this;
+        }
+
+        public CompactTrie build() {
+            List<BuildNode> order = new ArrayList<>();
+            ArrayDeque<BuildNode> queue = new ArrayDeque<>();
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                BuildNode node = queue.poll();
+                node.index = order.size();
+                order.add(node);
+                queue.addAll(node.children.values());
+            }
+
+            int n = order.size();
+            char[] labels = new char[n];
+            int[] firstChild = new int[n];
+            int[] childCount = new int[n];
+            int[] firstEntry = new int[n];
+            int[] entryCount = new int[n];
+            int[] maxWeight = new int[n];
+            List<String> values = new ArrayList<>();
+            List<Integer> weights = new ArrayList<>();
+            for (BuildNode node : order) {
+                labels[node.index] = node.label;
+                childCount[node.index] = node.children.size();
+                firstChild[node.index] = node.children.isEmpty() ? 0 : node.children.firstEntry().getValue().index;
+                firstEntry[node.index] = values.size();
+                entryCount[node.index] = node.entries.size();
+                node.entries.forEach((value, weight) -> {
+                    values.add(value);
+                    weights.add(weight);
+                });
+            }
+            // Children always come after their parent, so a reverse pass sees every subtree first
+            Arrays.fill(maxWeight, Integer.MIN_VALUE);
+            for (int i = n - 1; i >= 0; i--) {
+                int best = Integer.MIN_VALUE;
+                for (int e = firstEntry[i]; e < firstEntry[i] + entryCount[i]; e++) {
+                    best = Math.max(best, weights.get(e));
+                }
+                for (int c = firstChild[i]; c < firstChild[i] + childCount[i]; c++) {
+                    best = Math.max(best, maxWeight[c]);
+                }
+                maxWeight[i] = best;
+            }
+            int[] entryWeights = weights.stream().mapToInt(Integer::intValue).toArray();
+            return new CompactTrie(labels, firstChild, childCount, firstEntry, entryCount, maxWeight,
+                    values.toArray(new String[0]), entryWeights);
+        }
+
+        private static final class BuildNode {
+            private final char label;
+            private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+            // Value to weight, in insertion order
+            private final Map<String, Integer> entries = new LinkedHashMap<>();
+            private int index;
+
+            private BuildNode(char label) {
+                this.label = label;
+            }
+        }
+    }
+}
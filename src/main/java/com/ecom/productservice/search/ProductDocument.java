@@ -0,0 +1,29 @@
+package com.ecom.productservice.search;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.models.Product;
+
+import java.time.LocalDateTime;
+
+/**
+ * The searchable fields of a product, loaded straight from a projection query.
+ */
+public record ProductDocument(Long productId, String name, String description, double price, String brand,
+                              LocalDateTime updatedAt, long version) {
+
+    public static ProductDocument from(Product product) {
+        return new ProductDocument(product.getProductId(), product.getName(), product.getDescription(),
+                product.getPrice(), product.getBrand(), product.getUpdatedAt(), product.getVersion());
+    }
+
+    public ProductResponseDto toDto() {
+        return ProductResponseDto.builder()
+                .id(productId)
+                .name(name)
+                .description(description)
+                .price(price)
+                .updatedAt(updatedAt)
+                .version(version)
+                .build();
+    }
+}
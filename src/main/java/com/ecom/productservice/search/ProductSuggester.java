@@ -0,0 +1,151 @@
+package com.ecom.productservice.search;
+
+import com.ecom.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Typeahead over product names and brands backed by a {@link CompactTrie}.
+ * <p>
+ * A name is reachable from the start of any of its words ("pho" suggests "Galaxy Phone").
+ * Suggestions are weighted by how many products share the name or brand. Catalog changes only
+ * mark the trie stale; a scheduled job rebuilds it off the request path and swaps it in atomically.
+ * Rebuilds are debounced: one runs once no change has arrived for {@code product.suggest.quiet-period},
+ * or at the latest {@code product.suggest.max-delay} after the first unapplied change, so a long
+ * ingest reloads the catalog every max-delay rather than on every refresh. The trie is also rebuilt
+ * every {@code product.suggest.max-age} to pick up writes made by other instances.
+ */
+@Component
+public class ProductSuggester {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggester.class);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer buildTimer;
+    private final Duration maxAge;
+    private final long quietPeriodNanos;
+    private final long maxDelayNanos;
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    // System.nanoTime() of the first and the latest change not yet in the trie
+    private volatile long staleSince = System.nanoTime();
+    private volatile long lastChange = System.nanoTime();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile CompactTrie trie = CompactTrie.builder().build();
+    private volatile long builtAtMillis;
+
+    public ProductSuggester(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${product.suggest.max-age:PT10M}") Duration maxAge,
+                            @Value("${product.suggest.quiet-period:PT30S}") Duration quietPeriod,
+                            @Value("${product.suggest.max-delay:PT5M}") Duration maxDelay) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxAge = maxAge;
+        this.quietPeriodNanos = quietPeriod.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.buildTimer = Timer.builder("product.suggest.build")
+                .description("Time taken to rebuild the suggestion trie")
+                .register(meterRegistry);
+        Gauge.builder("product.suggest.nodes", this, suggester -> suggester.trie.nodeCount())
+                .register(meterRegistry);
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        if (prefix == null) return List.of();
+        String key = normalize(prefix);
+        if (key.isEmpty()) return List.of();
+        return trie.complete(key, limit);
+    }
+
+    public void markStale() {
+        long now = System.nanoTime();
+        lastChange = now;
+        if (stale.compareAndSet(false, true)) staleSince = now;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${product.suggest.refresh-interval:PT5S}")
+    public void refreshIfStale() {
+        long now = System.nanoTime();
+        boolean due = stale.get() && (now - lastChange >= quietPeriodNanos || now - staleSince >= maxDelayNanos);
+        if (due || System.currentTimeMillis() - builtAtMillis > maxAge.toMillis()) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            stale.set(false);
+            CompactTrie rebuilt = buildTimer.recordCallable(this::buildFromCatalog);
+            trie = rebuilt;
+            builtAtMillis = System.currentTimeMillis();
+            log.info("Suggestion trie rebuilt: {} suggestions, {} nodes", rebuilt.size(), rebuilt.nodeCount());
+        } catch (Exception e) {
+            stale.set(true);
+            log.error("Failed to rebuild suggestion trie, keeping the current one", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private CompactTrie buildFromCatalog() {
+        Map<String, Integer> nameCounts = new HashMap<>();
+        Map<String, Integer> brandCounts = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<ProductDocument> documents = productRepository.streamSearchDocuments()) {
+                documents.forEach(document -> {
+                    if (document.name() != null && !document.name().isBlank()) {
+                        nameCounts.merge(document.name().trim(), 1, Integer::sum);
+                    }
+                    if (document.brand() != null && !document.brand().isBlank()) {
+                        brandCounts.merge(document.brand().trim(), 1, Integer::sum);
+                    }
+                });
+            }
+        });
+
+        CompactTrie.Builder builder = CompactTrie.builder();
+        nameCounts.forEach((name, count) -> addWordStarts(builder, name, count));
+        brandCounts.forEach((brand, count) -> builder.add(normalize(brand), brand, count));
+        return builder.build();
+    }
+
+    private static void addWordStarts(CompactTrie.Builder builder, String value, int weight) {
+        String key = normalize(value);
+        builder.add(key, value, weight);
+        for (int i = key.indexOf(' '); i >= 0; i = key.indexOf(' ', i + 1)) {
+            builder.add(key.substring(i + 1), value, weight);
+        }
+    }
+
+    static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,309 @@
+package com.ecom.productservice.search;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-process inverted index over product name, brand and description, ranked with BM25.
+ * <p>
+ * Every query token matches itself exactly and, at a lower weight, every indexed term it is a
+ * prefix of. The index is built from the database once the application is ready and kept up to
+ * date by the product write paths. A periodic rebuild picks up writes made by other instances.
+ */
+@Component
+public class ProductTextIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductTextIndex.class);
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int NAME_BOOST = 3;
+    private static final int BRAND_BOOST = 2;
+    private static final int DESCRIPTION_BOOST = 1;
+    private static final double PREFIX_WEIGHT = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Timer buildTimer;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Copy of data.memoryBytes, so that scrapes never take the lock
+    private final AtomicLong memoryBytes = new AtomicLong();
+
+    private IndexData data = new IndexData();
+    // Updates that arrive while a rebuild is reading the database, replayed onto the new index
+    private List<Consumer<IndexData>> pendingUpdates;
+
+    public ProductTextIndex(ProductRepository productRepository, PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.buildTimer = Timer.builder("product.search.index.build")
+                .description("Time taken to build the product text index from the database")
+                .register(meterRegistry);
+        Gauge.builder("product.search.index.memory", memoryBytes, AtomicLong::get)
+                .description("Estimated heap used by the product text index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("product.search.index.documents", this, ProductTextIndex::documentCount)
+                .register(meterRegistry);
+        Gauge.builder("product.search.index.terms", this, ProductTextIndex::termCount)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${product.search.rebuild-interval:PT10M}",
+            fixedDelayString = "${product.search.rebuild-interval:PT10M}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (pendingUpdates != null) return; // a rebuild is already running
+            pendingUpdates = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData rebuilt = new IndexData();
+        try {
+            buildTimer.record(() -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductDocument> documents = productRepository.streamSearchDocuments()) {
+                    documents.forEach(rebuilt::add);
+                }
+            }));
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild product text index, keeping the current one", e);
+            lock.writeLock().lock();
+            try {
+                pendingUpdates = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingUpdates.forEach(update -> update.accept(rebuilt));
+            pendingUpdates = null;
+            data = rebuilt;
+            memoryBytes.set(rebuilt.memoryBytes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product text index built: {} documents, {} terms", rebuilt.documents.size(), rebuilt.postings.size());
+    }
+
+    public void index(ProductDocument document) {
+        update(data -> data.add(document));
+    }
+
+    public void indexAll(Collection<ProductDocument> documents) {
+        update(data -> documents.forEach(data::add));
+    }
+
+    public void remove(Long productId) {
+        update(data -> data.remove(productId));
+    }
+
+    private void update(Consumer<IndexData> update) {
+        lock.writeLock().lock();
+        try {
+            update.accept(data);
+            memoryBytes.set(data.memoryBytes);
+            if (pendingUpdates != null) pendingUpdates.add(update);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products ranked by BM25 relevance to the query.
+     */
+    public List<ProductResponseDto> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            IndexData current = data;
+            if (current.documents.isEmpty()) return List.of();
+            Map<Long, Double> scores = new HashMap<>();
+            for (String token : tokens) {
+                current.score(token, 1.0, scores);
+                int expansions = 0;
+                for (String term : current.postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                    if (++expansions > MAX_PREFIX_EXPANSIONS) break;
+                    current.score(term, PREFIX_WEIGHT, scores);
+                }
+            }
+
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                top.offer(entry);
+                if (top.size() > limit) top.poll();
+            }
+            List<ProductResponseDto> results = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                results.add(current.documents.get(top.poll().getKey()).product());
+            }
+            Collections.reverse(results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return data.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return data.postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough heap estimate based on typical 64-bit JVM object sizes with compressed oops. Kept up
+     * to date by every change to the index, so reading it costs nothing.
+     */
+    public long estimatedMemoryBytes() {
+        return memoryBytes.get();
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private record Indexed(ProductResponseDto product, Map<String, Integer> termFrequencies, int length) {
+    }
+
+    private static final class IndexData {
+        private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        private final Map<Long, Indexed> documents = new HashMap<>();
+        private long totalLength;
+        private long memoryBytes;
+
+        void add(ProductDocument document) {
+            remove(document.productId());
+            Map<String, Integer> frequencies = new HashMap<>();
+            addField(frequencies, document.name(), NAME_BOOST);
+            addField(frequencies, document.brand(), BRAND_BOOST);
+            addField(frequencies, document.description(), DESCRIPTION_BOOST);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                Map<Long, Integer> posting = postings.get(entry.getKey());
+                if (posting == null) {
+                    posting = new HashMap<>();
+                    postings.put(entry.getKey(), posting);
+                    memoryBytes += termBytes(entry.getKey());
+                }
+                posting.put(document.productId(), entry.getValue());
+                length += entry.getValue();
+            }
+            Indexed indexed = new Indexed(document.toDto(), frequencies, length);
+            documents.put(document.productId(), indexed);
+            totalLength += length;
+            memoryBytes += documentBytes(indexed);
+        }
+
+        void remove(Long productId) {
+            Indexed removed = documents.remove(productId);
+            if (removed == null) return;
+            totalLength -= removed.length();
+            memoryBytes -= documentBytes(removed);
+            for (String term : removed.termFrequencies().keySet()) {
+                Map<Long, Integer> posting = postings.get(term);
+                posting.remove(productId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    memoryBytes -= termBytes(term);
+                }
+            }
+        }
+
+        void score(String term, double weight, Map<Long, Double> scores) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting == null) return;
+            int n = documents.size();
+            double idf = Math.log(1 + (n - posting.size() + 0.5) / (posting.size() + 0.5));
+            double averageLength = (double) totalLength / n;
+            for (Map.Entry<Long, Integer> entry : posting.entrySet()) {
+                int tf = entry.getValue();
+                int length = documents.get(entry.getKey()).length();
+                double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                scores.merge(entry.getKey(), weight * score, Double::sum);
+            }
+        }
+
+        // TreeMap entry + String + posting HashMap
+        private static long termBytes(String term) {
+            return 40 + 40 + 2L * term.length() + 64;
+        }
+
+        // Document and its DTO, then one HashMap node per term frequency and one posting node + boxed key per term
+        private static long documentBytes(Indexed indexed) {
+            ProductResponseDto product = indexed.product();
+            return 56 + 40 + 24
+                    + 2L * (length(product.getName()) + length(product.getDescription()))
+                    + 64 + (48L + 56) * indexed.termFrequencies().size();
+        }
+
+        private static void addField(Map<String, Integer> frequencies, String text, int boost) {
+            for (String token : tokenize(text)) {
+                frequencies.merge(token, boost, Integer::sum);
+            }
+        }
+    }
+}
@@ -12,7 +12,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Component
@@ -38,15 +38,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
 
-        if (jwtService.isValid(token)) {
-            String username = jwtService.extractUsername(token);
-            List<String> roles = jwtService.extractRoles(token);
-
+        // One parse (or cache hit) yields validity, username and roles together
+        Optional<JwtService.VerifiedToken> verified = jwtService.verify(token);
+        if (verified.isPresent()) {
             UsernamePasswordAuthenticationToken auth =
                     new UsernamePasswordAuthenticationToken(
-                            username,
+                            verified.get().username(),
                             null,
-                            roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList())
+                            verified.get().roles().stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList())
                     );
 
             auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -4,10 +4,14 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 @ConfigurationProperties(prefix = "security.jwt")
 @Data
 public class JwtProperties {
     private String secret;
     private long expirationMs;
+    private int verifiedTokenCacheSize = 10_000;
+    private Duration verifiedTokenCacheMaxTtl = Duration.ofMinutes(15);
 }
\ No newline at end of file
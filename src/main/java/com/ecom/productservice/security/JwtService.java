@@ -1,48 +1,77 @@
 package com.ecom.productservice.security;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class JwtService {
 
-    private final JwtProperties jwtProperties;
+    private final JwtParser parser;
+
+    private final Duration verifiedTokenMaxTtl;
+
+    /** Verified tokens by the SHA-256 of the token, each kept until its exp (at most verifiedTokenMaxTtl). */
+    private final Cache<String, CachedToken> verifiedTokens;
 
     public JwtService(JwtProperties jwtProperties) {
-        this.jwtProperties = jwtProperties;
+        // The parser is immutable and thread-safe, so the key is derived and the parser built once
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.verifiedTokenMaxTtl = jwtProperties.getVerifiedTokenCacheMaxTtl();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getVerifiedTokenCacheSize())
+                .expireAfter(Expiry.creating((String hash, CachedToken cached) -> cached.timeToLive()))
+                .build();
     }
 
-    private Key key() { return Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8)); }
+    /**
+     * Verifies the token and extracts the username and roles in one parse. A token that was
+     * verified before is answered from the cache without checking the signature again.
+     *
+     * @return the token's principal, or empty if the token is malformed, badly signed or expired
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String hash = sha256(token);
+        CachedToken cached = verifiedTokens.getIfPresent(hash);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return Optional.of(cached.token());
+        }
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), roles(claims));
+        long maxExpiresAt = System.currentTimeMillis() + verifiedTokenMaxTtl.toMillis();
+        Date expiration = claims.getExpiration();
+        long expiresAt = expiration != null ? Math.min(expiration.getTime(), maxExpiresAt) : maxExpiresAt;
+        verifiedTokens.put(hash, new CachedToken(verified, expiresAt));
+        return Optional.of(verified);
+    }
 
     public List<String> extractRoles(String token) {
-        Claims claims = extractAllClaims(token);
-        Object roles = claims.get("roles");
-        if (roles instanceof List<?>) {
-            return ((List<?>) roles).stream()
-                    .map(Object::toString)
-                    .collect(Collectors.toList());
-        }
-        return List.of();
+        return roles(extractAllClaims(token));
     }
 
     public boolean isValid(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(token);
-            return true;
-        } catch (IllegalArgumentException e) {
-            return false;
-        }
+        return verify(token).isPresent();
     }
 
     private <T> T extractClaim(String token, java.util.function.Function<Claims, T> claimsResolver) {
@@ -51,14 +80,41 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
+
+    private static List<String> roles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (roles instanceof List<?>) {
+            return ((List<?>) roles).stream()
+                    .map(Object::toString)
+                    .collect(Collectors.toList());
+        }
+        return List.of();
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The parts of a verified token the request needs.
+     */
+    public record VerifiedToken(String username, List<String> roles) {
+    }
+
+    private record CachedToken(VerifiedToken token, long expiresAt) {
+        Duration timeToLive() {
+            return Duration.ofMillis(Math.max(0, expiresAt - System.currentTimeMillis()));
+        }
+    }
 }
@@ -27,6 +27,9 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers(HttpMethod.GET,"/product/**").permitAll()
+                        // Read-only lookup; POST only so the id list can be sent in the body
+                        .requestMatchers(HttpMethod.POST,"/product/batch").permitAll()
+                        .requestMatchers(HttpMethod.GET,"/category/**").permitAll()
                         .requestMatchers("/category/**").hasRole("ADMIN")
                         .requestMatchers("/product/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
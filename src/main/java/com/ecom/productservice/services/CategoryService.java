@@ -5,8 +5,16 @@ import com.ecom.productservice.exceptions.InvalidCategoryException;
 import com.ecom.productservice.models.Category;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public interface CategoryService {
     public void deleteCategory(Long id) throws InvalidCategoryException;
     public Category addCategory(CategoryRequestDto categoryRequestDto);
+    public List<Category> getAllCategories();
+    public Category getCategoryById(Long id) throws InvalidCategoryException;
+    /**
+     * ETag of the category list; changes whenever a category is added, changed or deleted.
+     */
+    public String getCategoriesEtag();
 }
@@ -1,5 +1,7 @@
 package com.ecom.productservice.services;
 
+import com.ecom.productservice.cache.CategoryDictionary;
+import com.ecom.productservice.configuration.ReadYourWrites;
 import com.ecom.productservice.dtos.CategoryRequestDto;
 import com.ecom.productservice.exceptions.InvalidCategoryException;
 import com.ecom.productservice.exceptions.ProductNotFoundException;
@@ -8,14 +10,17 @@ import com.ecom.productservice.models.Product;
 import com.ecom.productservice.repositories.CategoryRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
 public class CategoryServiceImpl implements CategoryService{
 
     private CategoryRepository categoryRepository;
-    public CategoryServiceImpl(CategoryRepository categoryRepository) {
+    private CategoryDictionary categoryDictionary;
+    public CategoryServiceImpl(CategoryRepository categoryRepository, CategoryDictionary categoryDictionary) {
         this.categoryRepository = categoryRepository;
+        this.categoryDictionary = categoryDictionary;
     }
     @Override
     public void deleteCategory(Long id) throws InvalidCategoryException {
@@ -24,6 +29,8 @@ public class CategoryServiceImpl implements CategoryService{
             throw new InvalidCategoryException("Category not found");
         }
         categoryRepository.delete(optionalCategory.get());
+        ReadYourWrites.recordWrite();
+        categoryDictionary.changed();
     }
 
     @Override
@@ -32,6 +39,25 @@ public class CategoryServiceImpl implements CategoryService{
         category.setCategoryId(categoryRequestDto.getId());
         category.setName(categoryRequestDto.getName());
         category.setDescription(categoryRequestDto.getDescription());
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        ReadYourWrites.recordWrite();
+        categoryDictionary.changed();
+        return saved;
+    }
+
+    @Override
+    public List<Category> getAllCategories() {
+        return categoryDictionary.all();
+    }
+
+    @Override
+    public Category getCategoryById(Long id) throws InvalidCategoryException {
+        return categoryDictionary.findById(id)
+                .orElseThrow(() -> new InvalidCategoryException("Category not found"));
+    }
+
+    @Override
+    public String getCategoriesEtag() {
+        return categoryDictionary.etag();
     }
 }
@@ -0,0 +1,13 @@
+package com.ecom.productservice.services;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "product.ingest")
+@Data
+public class ProductIngestProperties {
+    /** Number of products inserted and cached per chunk by the bulk ingest path. */
+    private int chunkSize = 1000;
+}
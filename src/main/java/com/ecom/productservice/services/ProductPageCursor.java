@@ -0,0 +1,36 @@
+package com.ecom.productservice.services;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the (price, productId) keyset ordering, exchanged with clients as an opaque token.
+ */
+public record ProductPageCursor(double price, long productId) {
+
+    private static final String VERSION = "v1";
+
+    public static ProductPageCursor after(ProductResponseDto product) {
+        return new ProductPageCursor(product.getPrice(), product.getId());
+    }
+
+    public String encode() {
+        String raw = VERSION + ":" + Double.doubleToLongBits(price) + ":" + productId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductPageCursor decode(String token) throws InvalidCursorException {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new InvalidCursorException("Invalid page cursor");
+            }
+            return new ProductPageCursor(Double.longBitsToDouble(Long.parseLong(parts[1])), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+}
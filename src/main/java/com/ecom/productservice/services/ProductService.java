@@ -2,31 +2,53 @@ package com.ecom.productservice.services;
 
 
 
+import com.ecom.productservice.cache.CatalogVersion;
 import com.ecom.productservice.dtos.ProductRequestDto;
+import com.ecom.productservice.exceptions.InvalidBatchRequestException;
 import com.ecom.productservice.exceptions.InvalidCategoryException;
+import com.ecom.productservice.exceptions.InvalidCursorException;
+import com.ecom.productservice.exceptions.InvalidSortException;
 import com.ecom.productservice.exceptions.NoProductsFoundException;
+import com.ecom.productservice.exceptions.PartialIngestException;
 import com.ecom.productservice.exceptions.ProductNotFoundException;
 import com.ecom.productservice.models.Product;
 import com.ecom.productservice.dtos.*;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public interface ProductService {
     public ProductResponseDto addProduct(ProductRequestDto product) throws InvalidCategoryException;
-    public List<ProductResponseDto> getAllProducts() throws NoProductsFoundException;
+
+    public void streamAllProducts(Consumer<ProductResponseDto> consumer) throws NoProductsFoundException;
 
     public Page<ProductResponseDto> getAllProducts(int pageNumber, int pageSize);
+
+    /**
+     * Current version of the whole catalog, for conditional GETs of the full listing. Usually
+     * answered without a Redis round trip.
+     */
+    public CatalogVersion getCatalogVersion();
+
+    public ProductCursorPageDto getProductsAfter(String cursor, int pageSize) throws InvalidCursorException;
     public ProductResponseDto getProductById(Long id) throws ProductNotFoundException;
 
-    public List<ProductResponseDto> addAllProducts(List<ProductRequestDto> productDTO) throws InvalidCategoryException;
+    public List<ProductBatchItemDto> getProductsByIds(List<Long> ids) throws InvalidBatchRequestException;
+
+    public List<ProductResponseDto> addAllProducts(List<ProductRequestDto> productDTO) throws InvalidCategoryException, PartialIngestException;
 
     public void removeProductById(Long id) throws ProductNotFoundException;
 
     ProductResponseDto updateProduct(UpdateProductRequestDto productRequestDto) throws ProductNotFoundException;
 
-    public List<ProductResponseDto> searchProducts(String category, String brand, Double minPrice, Double maxPrice);
+    public Page<ProductResponseDto> searchProducts(ProductSearchCriteria criteria, Pageable pageable) throws InvalidSortException;
+
+    public List<ProductResponseDto> searchProductsByText(String query, int limit);
+
+    public List<String> suggest(String prefix, int limit);
 }
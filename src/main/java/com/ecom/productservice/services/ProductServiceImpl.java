@@ -1,50 +1,131 @@
 package com.ecom.productservice.services;
 
 
+import com.ecom.productservice.cache.CatalogVersion;
+import com.ecom.productservice.cache.CatalogVersionTracker;
+import com.ecom.productservice.cache.CategoryDictionary;
+import com.ecom.productservice.cache.ProductCache;
+import com.ecom.productservice.cache.ProductCacheWriteBehind;
+import com.ecom.productservice.configuration.ReadYourWrites;
+import com.ecom.productservice.dtos.ProductBatchItemDto;
+import com.ecom.productservice.dtos.ProductCursorPageDto;
 import com.ecom.productservice.dtos.ProductRequestDto;
 import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.dtos.ProductSearchCriteria;
 import com.ecom.productservice.dtos.UpdateProductRequestDto;
+import com.ecom.productservice.exceptions.InvalidBatchRequestException;
 import com.ecom.productservice.exceptions.InvalidCategoryException;
+import com.ecom.productservice.exceptions.InvalidCursorException;
+import com.ecom.productservice.exceptions.InvalidSortException;
 import com.ecom.productservice.exceptions.NoProductsFoundException;
+import com.ecom.productservice.exceptions.PartialIngestException;
 import com.ecom.productservice.exceptions.ProductNotFoundException;
 import com.ecom.productservice.mappers.ProductMapper;
 import com.ecom.productservice.models.Category;
 import com.ecom.productservice.models.Product;
 import com.ecom.productservice.repositories.*;
+import com.ecom.productservice.search.ProductDocument;
+import com.ecom.productservice.search.ProductSuggester;
+import com.ecom.productservice.search.ProductTextIndex;
 //import org.springframework.cache.annotation.Cacheable;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+/**
+ * Every public method is timed as {@code product.service} (tags: class, method, exception), see
+ * the percentile settings in application.properties.
+ */
 @Service
+@Timed("product.service")
 public class ProductServiceImpl implements ProductService {
 
      private final ProductRepository productRepository;
 
-     private final CategoryRepository categoryRepository;
+     private final CategoryDictionary categoryDictionary;
 
-    private final RedisTemplate redisTemplate;
+    private final ProductCache productCache;
+
+    private final CatalogVersionTracker catalogVersionTracker;
+
+    private final ProductCacheWriteBehind productCacheWriteBehind;
+
+    // Product writes and their cache outbox entries commit together
+    private final TransactionTemplate writeTransaction;
+
+    // Reads run in it so they go to the read replica when one is configured
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ProductIngestProperties ingestProperties;
+
+    private final ProductTextIndex productTextIndex;
+
+    private final ProductSuggester productSuggester;
+
+    private final DistributionSummary ingestBatchSize;
 
     private static final Logger log = LoggerFactory.getLogger(ProductServiceImpl.class);
 
-     public ProductServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository,RedisTemplate redisTemplate) {
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+
+    private static final int CACHE_BACKFILL_CHUNK = 1000;
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    // Properties /product/search may sort by; each is covered by one of the product indexes, name is not
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("price", "productId");
+
+     public ProductServiceImpl(ProductRepository productRepository, CategoryDictionary categoryDictionary,ProductCache productCache,
+                               CatalogVersionTracker catalogVersionTracker, ProductCacheWriteBehind productCacheWriteBehind,
+                               PlatformTransactionManager transactionManager, ProductIngestProperties ingestProperties,
+                               ProductTextIndex productTextIndex, ProductSuggester productSuggester,
+                               MeterRegistry meterRegistry) {
          this.productRepository = productRepository;
-         this.categoryRepository=categoryRepository;
-         this.redisTemplate=redisTemplate;
+         this.categoryDictionary=categoryDictionary;
+         this.productCache=productCache;
+         this.catalogVersionTracker=catalogVersionTracker;
+         this.productCacheWriteBehind=productCacheWriteBehind;
+         this.writeTransaction=new TransactionTemplate(transactionManager);
+         this.readOnlyTransaction=new TransactionTemplate(transactionManager);
+         this.readOnlyTransaction.setReadOnly(true);
+         this.ingestProperties=ingestProperties;
+         this.productTextIndex=productTextIndex;
+         this.productSuggester=productSuggester;
+         this.ingestBatchSize=DistributionSummary.builder("product.ingest.batch.size")
+                 .description("Products per addAllProducts call")
+                 .baseUnit("products")
+                 .publishPercentiles(0.5, 0.95, 0.99)
+                 .register(meterRegistry);
      }
 
      public ProductResponseDto addProduct(ProductRequestDto dto) throws InvalidCategoryException {
-         log.info("Adding product "+dto.getName() +"to inventory");
-         Category category = categoryRepository.findById(dto.getCategoryId())
+         log.info("Adding product {} to inventory", dto.getName());
+         Category category = categoryDictionary.findById(dto.getCategoryId())
                  .orElseThrow(() -> new InvalidCategoryException("Category not found"));
 
          Product product = new Product();
@@ -54,44 +135,111 @@ public class ProductServiceImpl implements ProductService {
          product.setCategory(category);
 
 
-         productRepository.save(product);
-         redisTemplate.opsForHash().put("PRODUCTS", "PRODUCT_" + product.getProductId(), ProductMapper.toDto(product));
-         return ProductMapper.toDto(product);
+         Product savedProduct = save(product);
+         ProductResponseDto response = ProductMapper.toDto(savedProduct);
+         productTextIndex.index(ProductDocument.from(savedProduct));
+         productSuggester.markStale();
+         return response;
      }
 
-    public List<ProductResponseDto> addAllProducts(List<ProductRequestDto> dto) throws InvalidCategoryException {
-         log.info("Adding all products "+dto);
-         List<Product> products = new ArrayList<>();
-         for (ProductRequestDto productRequestDto : dto) {
-             Category category = categoryRepository.findById(productRequestDto.getCategoryId())
-                     .orElseThrow(() -> new InvalidCategoryException("Category not found"));
-
-             Product product = new Product();
-             product.setName(productRequestDto.getName());
-             product.setDescription(productRequestDto.getDescription());
-             product.setPrice(productRequestDto.getPrice());
-             product.setCategory(category);
-             products.add(product);
+    /**
+     * Saves the products in chunks of {@code product.ingest.chunk-size}, one transaction per chunk.
+     * If a chunk fails, the chunks before it stay committed; the exception carries their ids and
+     * the index of the first product that was not saved.
+     */
+    public List<ProductResponseDto> addAllProducts(List<ProductRequestDto> dto) throws InvalidCategoryException, PartialIngestException {
+         log.info("Adding {} products", dto.size());
+         ingestBatchSize.record(dto.size());
+         Map<Long, Category> categories = resolveCategories(dto);
+         int chunkSize = ingestProperties.getChunkSize();
+         List<ProductResponseDto> responses = new ArrayList<>(dto.size());
+         for (int from = 0; from < dto.size(); from += chunkSize) {
+             List<ProductRequestDto> chunk = dto.subList(from, Math.min(from + chunkSize, dto.size()));
+             long start = System.nanoTime();
+             List<ProductResponseDto> ingested;
+             try {
+                 ingested = ingestChunk(chunk, categories);
+             } catch (RuntimeException e) {
+                 log.error("Ingest failed at product {} of {}; {} products were saved", from, dto.size(), responses.size(), e);
+                 throw new PartialIngestException(dto.size(), responses.size(),
+                         responses.isEmpty() ? null : responses.get(0).getId(),
+                         responses.isEmpty() ? null : responses.get(responses.size() - 1).getId(), from, e);
+             }
+             long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+             log.info("Ingested chunk {}/{}: {} products in {} ms ({} products/s)",
+                     from / chunkSize + 1, (dto.size() + chunkSize - 1) / chunkSize,
+                     ingested.size(), elapsedMs, ingested.size() * 1000L / elapsedMs);
+             responses.addAll(ingested);
          }
-        List<Product> productList=productRepository.saveAll(products);
-         for(Product product:productList)
-            redisTemplate.opsForHash().put("PRODUCTS", "PRODUCT_" + product.getProductId(), ProductMapper.toDto(product));
-         return  productList.stream().map(ProductMapper::toDto).toList();
+         return responses;
+    }
+
+    /**
+     * Resolves every category referenced by the request from the category dictionary.
+     */
+    private Map<Long, Category> resolveCategories(List<ProductRequestDto> dto) throws InvalidCategoryException {
+        Set<Long> categoryIds = new HashSet<>();
+        for (ProductRequestDto productRequestDto : dto) {
+            if (productRequestDto.getCategoryId() == null) {
+                throw new InvalidCategoryException("Category not found");
+            }
+            categoryIds.add(productRequestDto.getCategoryId());
+        }
+        Map<Long, Category> categories = new HashMap<>();
+        for (Long categoryId : categoryIds) {
+            Category category = categoryDictionary.findById(categoryId)
+                    .orElseThrow(() -> new InvalidCategoryException("Category not found"));
+            categories.put(categoryId, category);
+        }
+        return categories;
+    }
+
+    /**
+     * Inserts one chunk with a single batched saveAll; the cache is filled behind it from the outbox.
+     */
+    private List<ProductResponseDto> ingestChunk(List<ProductRequestDto> chunk, Map<Long, Category> categories) {
+        List<Product> products = new ArrayList<>(chunk.size());
+        for (ProductRequestDto productRequestDto : chunk) {
+            Product product = new Product();
+            product.setName(productRequestDto.getName());
+            product.setDescription(productRequestDto.getDescription());
+            product.setPrice(productRequestDto.getPrice());
+            product.setCategory(categories.get(productRequestDto.getCategoryId()));
+            products.add(product);
+        }
+        List<Product> saved = writeTransaction.execute(status -> {
+            List<Product> inserted = productRepository.saveAll(products);
+            productCacheWriteBehind.enqueue(inserted.stream().map(Product::getProductId).toList());
+            ReadYourWrites.recordWrite();
+            return inserted;
+        });
+        List<ProductResponseDto> ingested = saved.stream()
+                .map(ProductMapper::toDto)
+                .toList();
+        productTextIndex.indexAll(saved.stream().map(ProductDocument::from).toList());
+        productSuggester.markStale();
+        return ingested;
     }
 
     @Override
     public void removeProductById(Long id) throws ProductNotFoundException {
-         log.info("Removing product "+id);
+         log.info("Removing product {}", id);
         Optional<Product> optionalProduct=productRepository.findById(id);
         if(optionalProduct.isEmpty()){
             throw new ProductNotFoundException("Product not found");
         }
-        productRepository.deleteById(id);
+        writeTransaction.executeWithoutResult(status -> {
+            productRepository.deleteById(id);
+            productCacheWriteBehind.enqueue(List.of(id));
+            ReadYourWrites.recordWrite();
+        });
+        productTextIndex.remove(id);
+        productSuggester.markStale();
     }
 
     @Override
     public ProductResponseDto updateProduct(UpdateProductRequestDto productRequestDto) throws ProductNotFoundException {
-        log.info("Updating product "+productRequestDto.getName());
+        log.info("Updating product {}", productRequestDto.getName());
          Optional<Product> productOpt=productRepository.findById(productRequestDto.getProductId());
         if(productOpt.isEmpty()){
             throw new ProductNotFoundException("Product not found");
@@ -101,62 +249,176 @@ public class ProductServiceImpl implements ProductService {
         if (productRequestDto.getName() != null) product.setName(productRequestDto.getName());
         if (productRequestDto.getDescription() != null) product.setDescription(productRequestDto.getDescription());
         if (productRequestDto.getPrice()!=null) product.setPrice(productRequestDto.getPrice());
-        Product savedProduct=productRepository.save(product);
-        redisTemplate.opsForHash().put("PRODUCTS", "PRODUCT_" + product.getProductId(), ProductMapper.toDto(savedProduct));
+        Product savedProduct=save(product);
+        productTextIndex.index(ProductDocument.from(savedProduct));
+        productSuggester.markStale();
         return ProductMapper.toDto(savedProduct);
     }
 
+    /**
+     * Saves the product and records it in the cache outbox in one transaction. Redis is not
+     * touched here: the write-behind dispatcher updates the cache once the transaction commits.
+     * The caller is pinned to the primary for its next reads, see {@link ReadYourWrites}.
+     */
+    private Product save(Product product) {
+        return writeTransaction.execute(status -> {
+            Product saved = productRepository.save(product);
+            productCacheWriteBehind.enqueue(List.of(saved.getProductId()));
+            ReadYourWrites.recordWrite();
+            return saved;
+        });
+    }
+
     @Override
-    public List<ProductResponseDto> getAllProducts() throws NoProductsFoundException {
-        log.info("Fetching all products");
-        List<ProductResponseDto> products = redisTemplate.opsForHash()
-                .values("PRODUCTS")
-                .stream()
-                .map(obj -> (ProductResponseDto) obj)
-                .toList();
-        System.out.println("Products from cache: "+products);
+    public void streamAllProducts(Consumer<ProductResponseDto> consumer) throws NoProductsFoundException {
+        log.debug("Streaming all products");
+        // A caller that just wrote reads the primary: Redis only has its write once the outbox is drained
+        if (!ReadYourWrites.isPinned() && productCache.isComplete()) {
+            if (productCache.scan(consumer) == 0) throw new NoProductsFoundException("No products found!");
+            return;
+        }
 
-        if(!products.isEmpty()) return products;
-        List<Product> productList = productRepository.findAll();
-        if(productList.isEmpty()){
+        // The cursor only lives as long as the transaction, so consume it inside one. The cache is
+        // back-filled as we go and only marked complete once every row has been written.
+        Long count = readOnlyTransaction.execute(status -> {
+            long streamed = 0;
+            List<ProductResponseDto> backfill = new ArrayList<>(CACHE_BACKFILL_CHUNK);
+            try (Stream<ProductResponseDto> products = productRepository.streamAllProducts()) {
+                for (ProductResponseDto product : (Iterable<ProductResponseDto>) products::iterator) {
+                    consumer.accept(product);
+                    streamed++;
+                    backfill.add(product);
+                    if (backfill.size() == CACHE_BACKFILL_CHUNK) {
+                        productCache.putAll(backfill);
+                        backfill.clear();
+                    }
+                }
+            }
+            productCache.putAll(backfill);
+            if (streamed > 0) productCache.markComplete();
+            return streamed;
+        });
+        if (count == null || count == 0) {
             throw new NoProductsFoundException("No products found!");
         }
-
-        return productList.stream()
-                .map(ProductMapper::toDto)
-                .toList();
     }
 
     @Override
     public Page<ProductResponseDto> getAllProducts(int pageNumber, int pageSize) {
-        Page<Product> productPage= productRepository.findAll(PageRequest.of(pageNumber,
+        return readOnlyTransaction.execute(status -> productRepository.findAllResponses(PageRequest.of(pageNumber,
                 pageSize,
-                Sort.by("price").ascending()));
-        return productPage.map(ProductMapper::toDto);
+                Sort.by("price").ascending())));
+    }
+
+    @Override
+    public CatalogVersion getCatalogVersion() {
+        return catalogVersionTracker.current();
+    }
+
+    @Override
+    public ProductCursorPageDto getProductsAfter(String cursor, int pageSize) throws InvalidCursorException {
+        int size = Math.max(1, Math.min(pageSize, MAX_CURSOR_PAGE_SIZE));
+        // One extra row tells us whether there is a next page without a COUNT query
+        Limit limit = Limit.of(size + 1);
+        List<ProductResponseDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = readOnlyTransaction.execute(status -> productRepository.findFirstPageByPrice(limit));
+        } else {
+            ProductPageCursor position = ProductPageCursor.decode(cursor);
+            rows = readOnlyTransaction.execute(status ->
+                    productRepository.findPageByPriceAfter(position.price(), position.productId(), limit));
+        }
+        if (rows.size() <= size) {
+            return new ProductCursorPageDto(rows, null);
+        }
+        List<ProductResponseDto> page = rows.subList(0, size);
+        return new ProductCursorPageDto(page, ProductPageCursor.after(page.get(size - 1)).encode());
     }
 
 
     @Override
     public ProductResponseDto getProductById(Long id) throws ProductNotFoundException {
-       log.info("Fetching product with product id "+id);
-        ProductResponseDto cached_product = (ProductResponseDto) redisTemplate.opsForHash().get("PRODUCTS", "PRODUCT_" + id);
-        System.out.println("Product from cache: "+cached_product);
-        if(cached_product!=null) return cached_product;
-        Optional<Product> productOptional=productRepository.findById(id);
-        if(productOptional.isEmpty()){
+        log.debug("Fetching product with product id {}", id);
+        ProductResponseDto product;
+        if (ReadYourWrites.isPinned()) {
+            // Both cache tiers may still hold the version from before this caller's write
+            product = readOnlyTransaction.execute(status -> productRepository.findResponseById(id).orElse(null));
+        } else {
+            // Concurrent misses for the same id share one database load; cache hits open no transaction
+            product = productCache.getOrLoad(id, productId -> readOnlyTransaction.execute(status ->
+                    productRepository.findResponseById(productId).orElse(null)));
+        }
+        if(product==null){
             throw new ProductNotFoundException("Product not found");
         }
+        return product;
+    }
+
+    /**
+     * Resolves many ids with one HMGET, one projection query for the misses and one pipelined
+     * cache back-fill. Results follow the input order; duplicates are answered from one lookup.
+     */
+    @Override
+    public List<ProductBatchItemDto> getProductsByIds(List<Long> ids) throws InvalidBatchRequestException {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new InvalidBatchRequestException("At most " + MAX_BATCH_SIZE + " ids can be requested at once");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidBatchRequestException("Product ids must not be null");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        // A caller that just wrote skips the caches, see getProductById
+        Map<Long, ProductResponseDto> products = ReadYourWrites.isPinned() ? new HashMap<>()
+                : new HashMap<>(productCache.getAll(distinctIds));
+        int cached = products.size();
 
-        Product product=productOptional.get();
-        redisTemplate.opsForHash().put("PRODUCTS", "PRODUCT_" + id, ProductMapper.toDto(product));
-        return ProductMapper.toDto(product);
+        List<Long> misses = distinctIds.stream().filter(id -> !products.containsKey(id)).toList();
+        if (!misses.isEmpty()) {
+            List<ProductResponseDto> loaded = readOnlyTransaction.execute(status -> productRepository.findResponsesByIdIn(misses));
+            productCache.putAll(loaded);
+            loaded.forEach(product -> products.put(product.getId(), product));
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Batch lookup of {} ids: {} cached, {} loaded, {} not found", distinctIds.size(),
+                    cached, products.size() - cached, distinctIds.size() - products.size());
+        }
+
+        List<ProductBatchItemDto> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductResponseDto product = products.get(id);
+            results.add(product != null ? ProductBatchItemDto.found(product) : ProductBatchItemDto.notFound(id));
+        }
+        return results;
     }
 
-    public List<ProductResponseDto> searchProducts(String category, String brand, Double minPrice, Double maxPrice) {
-        // Example using JPA Specification or custom query logic
-        // If using a repository, you can build a dynamic query here
-        List<Product> products=productRepository.findByFilters(category, brand, minPrice, maxPrice);
-        return products.stream().map(ProductMapper::toDto).toList();
+    @Override
+    public Page<ProductResponseDto> searchProducts(ProductSearchCriteria criteria, Pageable pageable) throws InvalidSortException {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidSortException("Cannot sort products by " + order.getProperty()
+                        + "; sortable properties are price and productId");
+            }
+        }
+        Long categoryId = criteria.getCategoryId();
+        if (categoryId == null && criteria.getCategory() != null) {
+            Optional<Long> category = categoryDictionary.findIdByName(criteria.getCategory());
+            if (category.isEmpty()) return Page.empty(pageable);
+            categoryId = category.get();
+        }
+        Specification<Product> spec = ProductSpecifications.matching(categoryId, criteria.getBrand(),
+                criteria.getMinPrice(), criteria.getMaxPrice());
+        // Page and count query in one read-only transaction, on the same replica
+        return readOnlyTransaction.execute(status -> productRepository.findAll(spec, pageable).map(ProductMapper::toDto));
+    }
+
+    @Override
+    public List<ProductResponseDto> searchProductsByText(String query, int limit) {
+        return productTextIndex.search(query, limit);
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        return productSuggester.suggest(prefix, limit);
     }
 
 }
@@ -0,0 +1,21 @@
+package com.ecom.productservice.services;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.dtos.ProductSearchCriteria;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of the read operations of {@link ProductService}. Errors are signalled
+ * with the same exceptions the blocking service throws.
+ */
+public interface ReactiveProductService {
+
+    /**
+     * @return the product, or an error with {@code ProductNotFoundException}
+     */
+    Mono<ProductResponseDto> getProductById(Long id);
+
+    Mono<Page<ProductResponseDto>> searchProducts(ProductSearchCriteria criteria, Pageable pageable);
+}
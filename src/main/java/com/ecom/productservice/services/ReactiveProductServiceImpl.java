@@ -0,0 +1,62 @@
+package com.ecom.productservice.services;
+
+import com.ecom.productservice.cache.ReactiveProductCache;
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.dtos.ProductSearchCriteria;
+import com.ecom.productservice.exceptions.ProductNotFoundException;
+import com.ecom.productservice.repositories.ProductRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads go to Redis through the reactive client; JPA is blocking, so every repository call is
+ * moved to the bounded elastic scheduler and never runs on a Redis or servlet container thread.
+ */
+@Service
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+
+    private final ProductRepository productRepository;
+
+    private final ReactiveProductCache reactiveProductCache;
+
+    private final ProductService productService;
+
+    private final ConcurrentHashMap<Long, Mono<ProductResponseDto>> inFlight = new ConcurrentHashMap<>();
+
+    public ReactiveProductServiceImpl(ProductRepository productRepository, ReactiveProductCache reactiveProductCache,
+                                      ProductService productService) {
+        this.productRepository = productRepository;
+        this.reactiveProductCache = reactiveProductCache;
+        this.productService = productService;
+    }
+
+    @Override
+    public Mono<ProductResponseDto> getProductById(Long id) {
+        return reactiveProductCache.get(id)
+                .switchIfEmpty(Mono.defer(() -> inFlight.computeIfAbsent(id, this::load)))
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException("Product not found")));
+    }
+
+    @Override
+    public Mono<Page<ProductResponseDto>> searchProducts(ProductSearchCriteria criteria, Pageable pageable) {
+        return Mono.fromCallable(() -> productService.searchProducts(criteria, pageable))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Database load and cache back-fill shared by concurrent misses for the same id, like
+     * {@code ProductCache#getOrLoad} does for the blocking path.
+     */
+    private Mono<ProductResponseDto> load(Long id) {
+        return Mono.fromCallable(() -> productRepository.findResponseById(id).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(product -> reactiveProductCache.put(product).thenReturn(product))
+                .doFinally(signal -> inFlight.remove(id))
+                .cache();
+    }
+}
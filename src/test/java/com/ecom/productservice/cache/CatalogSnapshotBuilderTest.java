@@ -0,0 +1,169 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.repositories.ProductRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class CatalogSnapshotBuilderTest {
+
+    private static final CatalogVersion V1 = new CatalogVersion(1, 1000);
+    private static final CatalogVersion V2 = new CatalogVersion(2, 2000);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CatalogVersionTracker catalogVersionTracker;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private CatalogSnapshotBuilder builder;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doReturn(StringRedisSerializer.UTF_8).when(redisTemplate).getValueSerializer();
+        builder = new CatalogSnapshotBuilder(productRepository, catalogVersionTracker, redisTemplate, objectMapper,
+                transactionManager, new SimpleMeterRegistry(), true, directory);
+    }
+
+    @Test
+    void refresh_writesCompressedCatalogForCurrentVersion() throws IOException {
+        when(catalogVersionTracker.current()).thenReturn(V1);
+        when(productRepository.streamAllProductsOrderById()).thenReturn(Stream.of(product(1L, "Phone"), product(2L, "Tablet")));
+
+        builder.refresh();
+
+        CatalogSnapshot snapshot = builder.snapshotAt(V1).orElseThrow();
+        assertEquals(2, snapshot.products());
+        assertEquals(Files.size(snapshot.file()), snapshot.length());
+        JsonNode catalog = read(snapshot);
+        assertEquals("Phone", catalog.get(0).get("name").asText());
+        assertEquals("Tablet", catalog.get(1).get("name").asText());
+        assertTrue(builder.snapshotAt(V2).isEmpty());
+    }
+
+    @Test
+    void refresh_reloadsOnlyInvalidatedProducts() throws IOException {
+        when(catalogVersionTracker.current()).thenReturn(V1);
+        when(productRepository.streamAllProductsOrderById())
+                .thenReturn(Stream.of(product(1L, "Phone"), product(2L, "Tablet"), product(3L, "Laptop"),
+                        product(4L, "Watch"), product(5L, "Camera")));
+        builder.refresh();
+
+        when(catalogVersionTracker.current()).thenReturn(V2);
+        // 2 was renamed, 3 was deleted
+        when(productRepository.findByIdRange(0, 999))
+                .thenReturn(List.of(product(5L, "Camera"), product(1L, "Phone"), product(2L, "Tablet Pro"), product(4L, "Watch")));
+        builder.onMessage(message("2,3"), null);
+        builder.refresh();
+
+        CatalogSnapshot snapshot = builder.snapshotAt(V2).orElseThrow();
+        assertEquals(4, snapshot.products());
+        JsonNode catalog = read(snapshot);
+        assertEquals("Phone", catalog.get(0).get("name").asText());
+        assertEquals("Tablet Pro", catalog.get(1).get("name").asText());
+        assertEquals("Watch", catalog.get(2).get("name").asText());
+        verify(productRepository, times(1)).streamAllProductsOrderById();
+        // The full load and the dirty ranges each read in their own read-only transaction
+        verify(transactionManager, times(2)).getTransaction(any());
+    }
+
+    @Test
+    void refresh_recompressesOnlyTheSegmentsOfInvalidatedProducts() throws IOException {
+        when(catalogVersionTracker.current()).thenReturn(V1);
+        when(productRepository.streamAllProductsOrderById())
+                .thenReturn(Stream.of(product(1L, "Phone"), product(2L, "Tablet"), product(1500L, "Laptop"), product(2500L, "Watch")));
+        builder.refresh();
+
+        when(catalogVersionTracker.current()).thenReturn(V2);
+        // 1500 was deleted, which empties its segment
+        when(productRepository.findByIdRange(1000, 1999)).thenReturn(List.of());
+        when(productRepository.findByIdRange(0, 999)).thenReturn(List.of(product(1L, "Phone Pro"), product(2L, "Tablet")));
+        builder.onMessage(message("1,1500"), null);
+        builder.refresh();
+
+        CatalogSnapshot snapshot = builder.snapshotAt(V2).orElseThrow();
+        assertEquals(3, snapshot.products());
+        JsonNode catalog = read(snapshot);
+        assertEquals(3, catalog.size());
+        assertEquals("Phone Pro", catalog.get(0).get("name").asText());
+        assertEquals("Tablet", catalog.get(1).get("name").asText());
+        assertEquals("Watch", catalog.get(2).get("name").asText());
+        verify(productRepository, never()).findByIdRange(2000, 2999);
+        verify(productRepository, never()).findResponsesByIdIn(anyCollection());
+    }
+
+    @Test
+    void refresh_versionWithoutInvalidation_reloadsCatalogOnNextRound() {
+        when(catalogVersionTracker.current()).thenReturn(V1);
+        when(productRepository.streamAllProductsOrderById()).thenReturn(Stream.of(product(1L, "Phone")));
+        builder.refresh();
+
+        when(catalogVersionTracker.current()).thenReturn(V2);
+        when(productRepository.streamAllProductsOrderById()).thenReturn(Stream.of(product(1L, "Phone")));
+        builder.refresh();
+        assertTrue(builder.snapshotAt(V2).isEmpty());
+
+        builder.refresh();
+        assertTrue(builder.snapshotAt(V2).isPresent());
+        verify(productRepository, times(2)).streamAllProductsOrderById();
+    }
+
+    @Test
+    void snapshotAt_emptyCatalog_isNotServed() {
+        when(catalogVersionTracker.current()).thenReturn(V1);
+        when(productRepository.streamAllProductsOrderById()).thenReturn(Stream.empty());
+
+        builder.refresh();
+
+        assertTrue(builder.snapshotAt(V1).isEmpty());
+    }
+
+    private JsonNode read(CatalogSnapshot snapshot) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(snapshot.file()))) {
+            return objectMapper.readTree(in);
+        }
+    }
+
+    private static ProductResponseDto product(Long id, String name) {
+        return new ProductResponseDto(id, name, null, 10.0, null, 0);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("PRODUCTS_INVALIDATION".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
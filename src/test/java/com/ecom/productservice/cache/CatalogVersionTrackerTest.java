@@ -0,0 +1,84 @@
+package com.ecom.productservice.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CatalogVersionTrackerTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private CatalogVersionTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doReturn(StringRedisSerializer.UTF_8).when(redisTemplate).getValueSerializer();
+        tracker = new CatalogVersionTracker(redisTemplate, new ProductCacheProperties());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void current_readsRedisOnceWithinTtl() {
+        stubScript(CatalogVersionTracker.READ, "3:1000");
+
+        assertEquals(new CatalogVersion(3, 1000), tracker.current());
+        assertEquals(new CatalogVersion(3, 1000), tracker.current());
+
+        verify(redisTemplate, times(1)).execute(eq(CatalogVersionTracker.READ), any(RedisSerializer.class),
+                any(RedisSerializer.class), eq(List.of("PRODUCT_CATALOG")), any());
+    }
+
+    @Test
+    void bump_updatesLocalVersionAndPublishes() {
+        stubScript(CatalogVersionTracker.BUMP, "4:2000");
+
+        assertEquals(new CatalogVersion(4, 2000), tracker.bump());
+
+        assertEquals(new CatalogVersion(4, 2000), tracker.current());
+        verify(redisTemplate).convertAndSend("PRODUCT_CATALOG_VERSION", "4:2000");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onMessage_keepsHighestVersionAndIgnoresMalformed() {
+        tracker.onMessage(message("5:3000"), null);
+        tracker.onMessage(message("4:2000"), null);
+        tracker.onMessage(message("garbage"), null);
+
+        assertEquals(new CatalogVersion(5, 3000), tracker.current());
+        verify(redisTemplate, never()).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class), any(), any());
+    }
+
+    @Test
+    void etag_includesModificationTime() {
+        assertEquals("c5-3000", new CatalogVersion(5, 3000).etag());
+        assertNotEquals(new CatalogVersion(1, 3000).etag(), new CatalogVersion(1, 4000).etag());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubScript(RedisScript<String> script, String result) {
+        doReturn(result).when(redisTemplate).execute(eq(script), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("PRODUCT_CATALOG")), anyString());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("PRODUCT_CATALOG_VERSION".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
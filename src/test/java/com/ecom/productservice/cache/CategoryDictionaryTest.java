@@ -0,0 +1,101 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.models.Category;
+import com.ecom.productservice.repositories.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CategoryDictionaryTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private SecondLevelCacheEvictor secondLevelCacheEvictor;
+
+    private CategoryDictionary dictionary;
+
+    private final Category electronics = new Category(1L, "Electronics", "Gadgets");
+    private final Category books = new Category(2L, "Books", "Paper");
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(categoryRepository.findAll(any(Sort.class))).thenReturn(List.of(electronics, books));
+        dictionary = new CategoryDictionary(categoryRepository, redisTemplate, new ProductCacheProperties(), secondLevelCacheEvictor);
+    }
+
+    @Test
+    void lookups_loadOnceAndAnswerFromMemory() {
+        assertEquals(Optional.of(books), dictionary.findById(2L));
+        assertEquals(Optional.of(1L), dictionary.findIdByName("electronics"));
+        assertEquals(List.of(electronics, books), dictionary.all());
+
+        verify(categoryRepository, times(1)).findAll(any(Sort.class));
+        verify(categoryRepository, never()).findByCategoryId(any());
+        verify(categoryRepository, never()).findByName(any());
+    }
+
+    @Test
+    void findById_miss_checksDatabaseAndReloadsWhenFound() {
+        Category toys = new Category(3L, "Toys", "Games");
+        when(categoryRepository.findByCategoryId(3L)).thenReturn(Optional.of(toys));
+        dictionary.all();
+        when(categoryRepository.findAll(any(Sort.class))).thenReturn(List.of(electronics, books, toys));
+
+        assertEquals(Optional.of(toys), dictionary.findById(3L));
+        assertEquals(Optional.of(3L), dictionary.findIdByName("Toys"));
+        assertTrue(dictionary.findById(99L).isEmpty());
+
+        verify(categoryRepository, times(2)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void changed_reloadsAndNotifiesOtherInstances() {
+        String before = dictionary.etag();
+        when(categoryRepository.findAll(any(Sort.class))).thenReturn(List.of(electronics));
+
+        dictionary.changed();
+
+        assertNotEquals(before, dictionary.etag());
+        assertEquals(List.of(electronics), dictionary.all());
+        verify(redisTemplate).convertAndSend("CATEGORY_CHANGED", "changed");
+    }
+
+    @Test
+    void onMessage_evictsSecondLevelCacheBeforeReloading() {
+        dictionary.all();
+
+        dictionary.onMessage(null, null);
+
+        InOrder inOrder = inOrder(secondLevelCacheEvictor, categoryRepository);
+        inOrder.verify(secondLevelCacheEvictor).evictCategories();
+        inOrder.verify(categoryRepository).findAll(any(Sort.class));
+    }
+
+    @Test
+    void etag_dependsOnlyOnContent() {
+        CategoryDictionary other = new CategoryDictionary(categoryRepository, redisTemplate, new ProductCacheProperties(), secondLevelCacheEvictor);
+
+        assertEquals(dictionary.etag(), other.etag());
+        assertEquals(CategoryDictionary.etag(electronics),
+                CategoryDictionary.etag(new Category(1L, "Electronics", "Gadgets")));
+        assertNotEquals(CategoryDictionary.etag(electronics),
+                CategoryDictionary.etag(new Category(1L, "Electronics", "Devices")));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecom.productservice.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ProductCacheInvalidationListenerTest {
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private SecondLevelCacheEvictor secondLevelCacheEvictor;
+
+    private ProductCacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        doReturn(StringRedisSerializer.UTF_8).when(redisTemplate).getValueSerializer();
+        listener = new ProductCacheInvalidationListener(productCache, redisTemplate, secondLevelCacheEvictor);
+    }
+
+    @Test
+    void onMessage_evictsSecondLevelCacheThenNearCache() {
+        listener.onMessage(message("1, 2"), null);
+
+        InOrder inOrder = inOrder(secondLevelCacheEvictor, productCache);
+        inOrder.verify(secondLevelCacheEvictor).evictProducts(List.of(1L, 2L));
+        inOrder.verify(productCache).invalidateLocal(1L);
+        inOrder.verify(productCache).invalidateLocal(2L);
+    }
+
+    @Test
+    void onMessage_malformed_evictsNothing() {
+        listener.onMessage(message("1,x"), null);
+
+        verify(secondLevelCacheEvictor, never()).evictProducts(anyCollection());
+        verify(productCache, never()).invalidateLocal(any());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("PRODUCTS_INVALIDATION".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.configuration.ApplicationConfiguration;
+import com.ecom.productservice.dtos.ProductResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheSerializerTest {
+
+    private final ProductResponseDto product = ProductResponseDto.builder()
+            .id(42L).name("Galaxy S24").description("Écran 6,2\"").price(799.99)
+            .updatedAt(LocalDateTime.of(2024, 5, 1, 9, 30, 15, 250_000_000)).version(300).build();
+
+    @Test
+    void binary_roundTrip() {
+        RedisSerializer<Object> serializer = serializer(ProductCacheCodec.BINARY);
+
+        byte[] bytes = serializer.serialize(product);
+
+        assertEquals(ProductBinaryCodec.MAGIC, bytes[0]);
+        assertEquals(product, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void binary_roundTripWithNullFields() {
+        ProductResponseDto sparse = ProductResponseDto.builder().id(-7L).price(1.5).build();
+
+        assertEquals(sparse, ProductBinaryCodec.decode(ProductBinaryCodec.encode(sparse)));
+    }
+
+    @Test
+    void binary_readsEntriesWrittenAsJson() {
+        byte[] json = serializer(ProductCacheCodec.JSON).serialize(product);
+
+        assertEquals('{', json[0]);
+        assertEquals(product, serializer(ProductCacheCodec.BINARY).deserialize(json));
+    }
+
+    @Test
+    void json_readsEntriesWrittenAsBinary() {
+        byte[] binary = serializer(ProductCacheCodec.BINARY).serialize(product);
+
+        assertEquals(product, serializer(ProductCacheCodec.JSON).deserialize(binary));
+    }
+
+    @Test
+    void binary_isSmallerThanJson() {
+        int json = serializer(ProductCacheCodec.JSON).serialize(product).length;
+        int binary = serializer(ProductCacheCodec.BINARY).serialize(product).length;
+
+        assertTrue(binary * 2 < json, () -> "binary " + binary + " bytes, json " + json + " bytes");
+    }
+
+    @Test
+    void binary_readsVersionOneEntries() {
+        ProductResponseDto withoutTimestamp = ProductResponseDto.builder().id(42L).name("Galaxy S24").price(799.99).build();
+        byte[] bytes = ProductBinaryCodec.encode(withoutTimestamp);
+        bytes[1] = 1;
+
+        assertEquals(withoutTimestamp, ProductBinaryCodec.decode(bytes));
+    }
+
+    @Test
+    void binary_readsVersionTwoEntriesWithRowVersionZero() {
+        ProductResponseDto withoutRowVersion = ProductResponseDto.builder().id(42L).name("Galaxy S24").price(799.99)
+                .updatedAt(product.getUpdatedAt()).build();
+        byte[] encoded = ProductBinaryCodec.encode(withoutRowVersion);
+        // Version 2 ends before the row version, a single zero byte here
+        byte[] bytes = Arrays.copyOf(encoded, encoded.length - 1);
+        bytes[1] = 2;
+
+        assertEquals(withoutRowVersion, ProductBinaryCodec.decode(bytes));
+    }
+
+    @Test
+    void binary_rejectsUnknownVersion() {
+        byte[] bytes = ProductBinaryCodec.encode(product);
+        bytes[1] = 99;
+
+        assertThrows(SerializationException.class, () -> ProductBinaryCodec.decode(bytes));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisSerializer<Object> serializer(ProductCacheCodec codec) {
+        ProductCacheProperties properties = new ProductCacheProperties();
+        properties.setCodec(codec);
+        return (RedisSerializer<Object>) new ApplicationConfiguration().redisTemplate(null, properties)
+                .getHashValueSerializer();
+    }
+}
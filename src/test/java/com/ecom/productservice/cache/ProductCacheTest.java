@@ -0,0 +1,330 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.configuration.ApplicationConfiguration;
+import com.ecom.productservice.dtos.ProductResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.Mockito.*;
+
+class ProductCacheTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private ProductCacheProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductCache productCache;
+
+    private ProductResponseDto product;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        doReturn(StringRedisSerializer.UTF_8).when(redisTemplate).getHashKeySerializer();
+        doReturn(new ApplicationConfiguration().redisTemplate(null, new ProductCacheProperties()).getHashValueSerializer())
+                .when(redisTemplate).getHashValueSerializer();
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        properties = new ProductCacheProperties();
+        properties.setEarlyRefreshBeta(0);
+        meterRegistry = new SimpleMeterRegistry();
+        productCache = new ProductCache(redisTemplate, properties, meterRegistry);
+        product = ProductResponseDto.builder().id(1L).name("Phone").price(10.0).build();
+    }
+
+    @Test
+    void get_servesRepeatedReadsFromNearCache() {
+        when(hashOperations.get("PRODUCTS", "PRODUCT_1")).thenReturn(product);
+
+        assertEquals("Phone", productCache.get(1L).getName());
+        assertEquals("Phone", productCache.get(1L).getName());
+
+        verify(hashOperations, times(1)).get("PRODUCTS", "PRODUCT_1");
+    }
+
+    @Test
+    void get_countsHitsAndMissesPerTier() {
+        when(hashOperations.get("PRODUCTS", "PRODUCT_1")).thenReturn(product);
+
+        productCache.get(1L);
+        productCache.get(1L);
+        productCache.get(2L);
+
+        assertEquals(1.0, gets("near", "hit"));
+        assertEquals(2.0, gets("near", "miss"));
+        assertEquals(1.0, gets("redis", "hit"));
+        assertEquals(1.0, gets("redis", "miss"));
+    }
+
+    @Test
+    void refreshSize_updatesGaugeAndKeepsLastValueOnFailure() {
+        when(hashOperations.size("PRODUCTS")).thenReturn(42L);
+        productCache.refreshSize();
+        when(hashOperations.size("PRODUCTS")).thenThrow(new RedisConnectionFailureException("down"));
+        productCache.refreshSize();
+
+        assertEquals(42.0, meterRegistry.get("product.cache.size").gauge().value());
+    }
+
+    @Test
+    void get_missInBothTiers() {
+        when(hashOperations.get("PRODUCTS", "PRODUCT_1")).thenReturn(null);
+
+        assertNull(productCache.get(1L));
+        assertNull(productCache.get(1L));
+
+        verify(hashOperations, times(2)).get("PRODUCTS", "PRODUCT_1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void put_writesVersionedEntryWithoutPublishing() {
+        product.setVersion(7);
+        when(hashOperations.get("PRODUCTS", "PRODUCT_1")).thenReturn(product);
+        productCache.get(1L);
+
+        productCache.put(product);
+        productCache.get(1L);
+
+        verify(redisTemplate).execute(eq(ProductCache.PUT_IF_NEWER), any(RedisSerializer.class), any(RedisSerializer.class), eq(ProductCache.KEYS),
+                aryEq(bytes("PRODUCT_1")), aryEq(bytes("7")), any());
+        verify(hashOperations, never()).put(any(), any(), any());
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+        verify(hashOperations, times(1)).get("PRODUCTS", "PRODUCT_1");
+    }
+
+    @Test
+    void getOrLoad_backFillKeepsTheLoadedEntryNearAndPublishesNothing() {
+        when(hashOperations.get("PRODUCTS", "PRODUCT_1")).thenReturn(null);
+        when(redisTemplate.execute(eq(ProductCache.PUT_IF_NEWER), any(RedisSerializer.class), any(RedisSerializer.class), eq(ProductCache.KEYS), any(), any(), any()))
+                .thenReturn(1L);
+
+        productCache.getOrLoad(1L, id -> product);
+        productCache.getOrLoad(1L, id -> product);
+
+        verify(hashOperations, times(1)).get("PRODUCTS", "PRODUCT_1");
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void put_reportsRejectedStaleWrite() {
+        when(redisTemplate.execute(eq(ProductCache.PUT_IF_NEWER), any(RedisSerializer.class), any(RedisSerializer.class), eq(ProductCache.KEYS), any(), any(), any()))
+                .thenReturn(0L);
+
+        assertFalse(productCache.put(product));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeChanges_writesTombstonesDeletesAndPublishesOneInvalidation() {
+        doReturn(StringRedisSerializer.UTF_8).when(redisTemplate).getKeySerializer();
+        when(hashOperations.get("PRODUCTS", "PRODUCT_1")).thenReturn(product);
+        productCache.get(1L);
+
+        productCache.writeChanges(List.of(product), List.of(2L));
+        productCache.get(1L);
+
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verify(redisTemplate).execute(eq(ProductCache.EVICT), any(RedisSerializer.class), any(RedisSerializer.class), eq(ProductCache.EVICT_KEYS),
+                aryEq(bytes("PRODUCT_2")), any());
+        verify(redisTemplate).convertAndSend("PRODUCTS_INVALIDATION", "1,2");
+        verify(hashOperations, times(2)).get("PRODUCTS", "PRODUCT_1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scan_skipsCompletenessMarker() {
+        Cursor<Map.Entry<Object, Object>> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(Map.entry(ProductCache.COMPLETE_FIELD, "1"), Map.entry("PRODUCT_1", product));
+        when(hashOperations.scan(eq("PRODUCTS"), any(ScanOptions.class))).thenReturn(cursor);
+
+        List<ProductResponseDto> scanned = new ArrayList<>();
+        assertEquals(1, productCache.scan(scanned::add));
+        assertEquals(List.of(product), scanned);
+    }
+
+    @Test
+    void tombstone_isHigherThanAnyRowVersion() {
+        assertEquals(Long.MAX_VALUE, Long.parseLong(ProductCache.TOMBSTONE));
+        assertTrue(ProductCache.EVICT.getScriptAsString().contains("'" + ProductCache.TOMBSTONE + "'"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void expireTombstones_dropsInBatchesUntilNoneAreLeft() {
+        when(redisTemplate.execute(eq(ProductCache.EXPIRE_TOMBSTONES), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of("PRODUCT_ROW_VERSIONS", "PRODUCT_TOMBSTONES")), any(), any())).thenReturn(1000L, 3L);
+
+        productCache.expireTombstones();
+
+        verify(redisTemplate, times(2)).execute(eq(ProductCache.EXPIRE_TOMBSTONES), any(RedisSerializer.class),
+                any(RedisSerializer.class), anyList(), any(), aryEq(bytes("1000")));
+    }
+
+    @Test
+    void getAll_usesNearCacheThenOneMultiGet() {
+        ProductResponseDto other = ProductResponseDto.builder().id(2L).name("Case").build();
+        when(hashOperations.get("PRODUCTS", "PRODUCT_1")).thenReturn(product);
+        productCache.get(1L);
+        when(hashOperations.multiGet("PRODUCTS", List.of("PRODUCT_2", "PRODUCT_3"))).thenReturn(Arrays.asList(other, null));
+
+        Map<Long, ProductResponseDto> found = productCache.getAll(List.of(1L, 2L, 3L));
+
+        assertEquals(Map.of(1L, product, 2L, other), found);
+        assertEquals(other, productCache.get(2L));
+        verify(hashOperations, times(1)).multiGet(anyString(), anyCollection());
+        verify(hashOperations, never()).get("PRODUCTS", "PRODUCT_2");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getOrLoad_coalescesConcurrentMisses() throws Exception {
+        AtomicReference<ProductResponseDto> redis = new AtomicReference<>();
+        when(hashOperations.get("PRODUCTS", "PRODUCT_1")).thenAnswer(invocation -> redis.get());
+        when(redisTemplate.execute(eq(ProductCache.PUT_IF_NEWER), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(ProductCache.KEYS), any(), any(), any())).thenAnswer(invocation -> {
+            redis.set(product);
+            return 1L;
+        });
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ProductResponseDto>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> productCache.getOrLoad(1L, id -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    await(release);
+                    return product;
+                })));
+            }
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            release.countDown();
+            for (Future<ProductResponseDto> result : results) {
+                assertEquals(product, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getOrLoad_notFoundIsNotCached() {
+        assertNull(productCache.getOrLoad(1L, id -> null));
+
+        verify(redisTemplate, never()).execute(any(), any(RedisSerializer.class), any(RedisSerializer.class), any(), any(), any(), any());
+        assertEquals(1, meterRegistry.get("product.cache.loads").tag("result", "not_found").timer().count());
+    }
+
+    @Test
+    void getOrLoad_loaderFailurePropagates() {
+        assertThrows(IllegalStateException.class, () -> productCache.getOrLoad(1L, id -> {
+            throw new IllegalStateException("database down");
+        }));
+    }
+
+    @Test
+    void getOrLoad_lockAcquiredLoadsAndReleases() {
+        properties.setLoadLock(true);
+        when(valueOperations.setIfAbsent(eq("PRODUCT_LOCK_1"), anyString(), any(Duration.class))).thenReturn(true);
+
+        assertEquals(product, productCache.getOrLoad(1L, id -> product));
+
+        verify(redisTemplate).execute(eq(ProductCache.RELEASE_LOCK), eq(List.of("PRODUCT_LOCK_1")), anyString());
+    }
+
+    @Test
+    void getOrLoad_lockHeldElsewhereWaitsForWinnersWrite() {
+        properties.setLoadLock(true);
+        properties.setLoadLockTtl(Duration.ofSeconds(5));
+        when(valueOperations.setIfAbsent(eq("PRODUCT_LOCK_1"), anyString(), any(Duration.class))).thenReturn(false);
+        when(hashOperations.get("PRODUCTS", "PRODUCT_1")).thenReturn(null, null, product);
+
+        assertEquals(product, productCache.getOrLoad(1L, id -> fail("loader must not run while another instance holds the lock")));
+    }
+
+    @Test
+    void getOrLoad_earlyRefreshRereadsRedis() {
+        when(hashOperations.get("PRODUCTS", "PRODUCT_1")).thenReturn(product);
+        productCache.getOrLoad(1L, id -> product);
+        productCache.getOrLoad(1L, id -> product);
+        verify(hashOperations, times(1)).get("PRODUCTS", "PRODUCT_1");
+
+        properties.setEarlyRefreshBeta(Double.MAX_VALUE);
+        productCache.getOrLoad(1L, id -> product);
+        verify(hashOperations, times(2)).get("PRODUCTS", "PRODUCT_1");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void invalidateLocal_forcesRedisRead() {
+        when(hashOperations.get("PRODUCTS", "PRODUCT_1")).thenReturn(product);
+        productCache.get(1L);
+
+        productCache.invalidateLocal(1L);
+        productCache.get(1L);
+
+        verify(hashOperations, times(2)).get("PRODUCTS", "PRODUCT_1");
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    private double gets(String tier, String result) {
+        return meterRegistry.get("product.cache.gets").tag("tier", tier).tag("result", result).counter().count();
+    }
+}
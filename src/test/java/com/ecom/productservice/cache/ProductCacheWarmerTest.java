@@ -0,0 +1,98 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.actuate.health.Status;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductCacheWarmerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    private ProductCacheWarmupProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductCacheWarmer warmer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new ProductCacheWarmupProperties();
+        properties.setChunkSize(10);
+        properties.setParallelism(2);
+        meterRegistry = new SimpleMeterRegistry();
+        warmer = new ProductCacheWarmer(productRepository, productCache, properties, Runnable::run, meterRegistry);
+    }
+
+    @Test
+    void warmUp_loadsEveryIdRangeAndMarksComplete() {
+        when(productRepository.findMinProductId()).thenReturn(1L);
+        when(productRepository.findMaxProductId()).thenReturn(25L);
+        when(productRepository.findByIdRange(anyLong(), anyLong()))
+                .thenReturn(List.of(ProductResponseDto.builder().id(1L).build()));
+
+        warmer.warmUpOnStartup();
+
+        verify(productRepository).findByIdRange(1, 10);
+        verify(productRepository).findByIdRange(11, 20);
+        verify(productRepository).findByIdRange(21, 25);
+        verify(productCache, times(3)).putAll(anyList());
+        verify(productCache).markComplete();
+        assertEquals(ProductCacheWarmer.State.COMPLETED, warmer.getState());
+        assertEquals(1.0, warmer.progress());
+        assertEquals(3.0, meterRegistry.get("product.cache.warmup.products").counter().count());
+    }
+
+    @Test
+    void warmUp_skipsWhenCacheAlreadyComplete() {
+        when(productCache.isComplete()).thenReturn(true);
+
+        warmer.warmUpOnStartup();
+
+        verify(productRepository, never()).findByIdRange(anyLong(), anyLong());
+        assertEquals(ProductCacheWarmer.State.SKIPPED, warmer.getState());
+    }
+
+    @Test
+    void warmUp_failedChunkLeavesCacheIncomplete() {
+        when(productRepository.findMinProductId()).thenReturn(1L);
+        when(productRepository.findMaxProductId()).thenReturn(20L);
+        when(productRepository.findByIdRange(1, 10)).thenReturn(List.of());
+        when(productRepository.findByIdRange(11, 20)).thenThrow(new IllegalStateException("connection reset"));
+
+        warmer.warmUpOnStartup();
+
+        verify(productCache, never()).markComplete();
+        assertEquals(ProductCacheWarmer.State.FAILED, warmer.getState());
+        assertEquals(Status.UP, new ProductCacheWarmupHealthIndicator(warmer).health().getStatus());
+    }
+
+    @Test
+    void health_outOfServiceUntilWarmedUpOrPastDeadline() {
+        ProductCacheWarmupHealthIndicator indicator = new ProductCacheWarmupHealthIndicator(warmer);
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+
+        ProductCacheWarmer queued = new ProductCacheWarmer(productRepository, productCache, properties,
+                command -> { }, meterRegistry);
+        queued.warmUpOnStartup();
+        assertEquals(Status.OUT_OF_SERVICE, new ProductCacheWarmupHealthIndicator(queued).health().getStatus());
+
+        properties.setDeadline(Duration.ZERO);
+        assertEquals(Status.UP, new ProductCacheWarmupHealthIndicator(queued).health().getStatus());
+    }
+}
@@ -0,0 +1,186 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.configuration.ReplicaRoutingDataSource;
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.models.ProductCacheOutboxEntry;
+import com.ecom.productservice.repositories.ProductCacheOutboxRepository;
+import com.ecom.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ProductCacheWriteBehindTest {
+
+    @Mock
+    private ProductCacheOutboxRepository outboxRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private CatalogVersionTracker catalogVersionTracker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ProductCacheWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(outboxRepository.claimOldest(any(Limit.class))).thenReturn(List.of());
+        when(outboxRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.empty());
+        writeBehind = new ProductCacheWriteBehind(outboxRepository, productRepository, productCache, catalogVersionTracker,
+                new ProductCacheOutboxProperties(), transactionManager, Runnable::run, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void enqueue_recordsEntriesAndDrainsOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        writeBehind.enqueue(List.of(1L, 2L));
+
+        verify(outboxRepository).saveAll(argThat(entries -> ((List<ProductCacheOutboxEntry>) entries).size() == 2));
+        verify(outboxRepository, never()).claimOldest(any());
+        verify(productCache, never()).invalidateLocal(any());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(productCache).invalidateLocal(1L);
+        verify(productCache).invalidateLocal(2L);
+        verify(outboxRepository).claimOldest(any(Limit.class));
+    }
+
+    @Test
+    void drain_writesCurrentStateEvictsDeletedAndRemovesEntries() {
+        List<ProductCacheOutboxEntry> claimed = List.of(entry(1L, 1L), entry(2L, 2L), entry(3L, 1L));
+        when(outboxRepository.claimOldest(any(Limit.class))).thenReturn(claimed);
+        ProductResponseDto phone = new ProductResponseDto(1L, "Phone", null, 10.0, null, 0);
+        when(productRepository.findResponsesByIdIn(any())).thenReturn(List.of(phone));
+
+        writeBehind.signal();
+
+        verify(productCache).writeChanges(List.of(phone), Set.of(2L));
+        verify(catalogVersionTracker, times(1)).bump();
+        verify(outboxRepository).deleteAllInBatch(claimed);
+        assertEquals(1, meterRegistry.get("product.cache.outbox.dispatch").timer().count());
+    }
+
+    @Test
+    void drain_redisFailure_keepsEntriesAndBacksOff() {
+        when(outboxRepository.claimOldest(any(Limit.class))).thenReturn(List.of(entry(1L, 1L)));
+        when(productRepository.findResponsesByIdIn(any())).thenReturn(List.of(new ProductResponseDto(1L, "Phone", null, 10.0, null, 0)));
+        doThrow(new IllegalStateException("Redis is down")).when(productCache).writeChanges(anyList(), anyCollection());
+
+        writeBehind.signal();
+        writeBehind.signal();
+
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+        verify(outboxRepository, times(1)).claimOldest(any(Limit.class));
+        assertEquals(1.0, meterRegistry.get("product.cache.outbox.failures").counter().count());
+    }
+
+    @Test
+    void drain_reportsBacklogDepthAndLag() {
+        when(outboxRepository.count()).thenReturn(3L);
+        when(outboxRepository.findFirstByOrderByIdAsc())
+                .thenReturn(Optional.of(new ProductCacheOutboxEntry(7L, 1L, Instant.now().minusSeconds(5))));
+
+        writeBehind.signal();
+
+        assertEquals(3.0, meterRegistry.get("product.cache.outbox.depth").gauge().value());
+        assertTrue(meterRegistry.get("product.cache.outbox.lag").timeGauge().value(TimeUnit.SECONDS) >= 5);
+    }
+
+    @Test
+    void poll_emptyOutbox_opensNoClaimTransaction() {
+        writeBehind.poll();
+
+        verify(outboxRepository, never()).claimOldest(any());
+    }
+
+    @Test
+    void poll_pendingEntries_drains() {
+        when(outboxRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(entry(1L, 1L)));
+
+        writeBehind.poll();
+
+        verify(outboxRepository).claimOldest(any(Limit.class));
+    }
+
+    @Test
+    void poll_withReplicaRouting_checksOnTheReplicaAndKeepsReadsThere() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(h2("outbox-primary"), h2("outbox-replica"));
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<String> checkedOn = new ArrayList<>();
+        when(outboxRepository.findFirstByOrderByIdAsc()).thenAnswer(invocation -> {
+            checkedOn.add(database(jdbcTemplate));
+            return Optional.empty();
+        });
+        ProductCacheWriteBehind routed = new ProductCacheWriteBehind(outboxRepository, productRepository, productCache,
+                catalogVersionTracker, new ProductCacheOutboxProperties(), transactionManager, Runnable::run, meterRegistry);
+
+        routed.poll();
+        routed.poll();
+
+        assertEquals(List.of("outbox-replica", "outbox-replica"), checkedOn);
+        verify(outboxRepository, never()).claimOldest(any());
+        assertEquals("outbox-replica", readOnly.execute(status -> database(jdbcTemplate)));
+    }
+
+    private static String database(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class).toLowerCase(Locale.ROOT);
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    private static ProductCacheOutboxEntry entry(Long id, Long productId) {
+        return new ProductCacheOutboxEntry(id, productId, Instant.now());
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecom.productservice.cache;
+
+import com.ecom.productservice.models.Category;
+import com.ecom.productservice.models.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+class SecondLevelCacheEvictorTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache cache;
+
+    private SecondLevelCacheEvictor evictor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        evictor = new SecondLevelCacheEvictor(entityManagerFactory);
+    }
+
+    @Test
+    void evictProducts_dropsTheListedEntitiesAndProductQueryResults() {
+        evictor.evictProducts(List.of(1L, 2L));
+
+        verify(cache).evictEntityData(Product.class, 1L);
+        verify(cache).evictEntityData(Product.class, 2L);
+        verify(cache, never()).evictEntityData(Product.class);
+        verify(cache).evictQueryRegion("product-query-results");
+        verify(cache, never()).evictQueryRegions();
+    }
+
+    @Test
+    void evictCategories_dropsTheCategoryRegionAndCategoryQueryResults() {
+        evictor.evictCategories();
+
+        verify(cache).evictEntityData(Category.class);
+        verify(cache).evictQueryRegion("category-query-results");
+        verify(cache, never()).evictQueryRegions();
+    }
+}
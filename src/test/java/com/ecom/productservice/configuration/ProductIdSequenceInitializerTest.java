@@ -0,0 +1,59 @@
+package com.ecom.productservice.configuration;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ProductIdSequenceInitializerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ProductIdSequenceInitializer initializer;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:product-seq;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS product");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS product_seq");
+        jdbcTemplate.execute("CREATE TABLE product (product_id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE product_seq (next_val BIGINT)");
+        jdbcTemplate.update("INSERT INTO product_seq VALUES (1)");
+        initializer = new ProductIdSequenceInitializer(jdbcTemplate, mock(EntityManagerFactory.class));
+    }
+
+    @Test
+    void seedTable_movesTheAllocatorPastExistingIds() {
+        jdbcTemplate.update("INSERT INTO product VALUES (7), (1234)");
+
+        initializer.seedTable();
+
+        assertEquals(1284L, nextVal());
+    }
+
+    @Test
+    void seedTable_neverLowersTheAllocator() {
+        jdbcTemplate.update("INSERT INTO product VALUES (10)");
+        jdbcTemplate.update("UPDATE product_seq SET next_val = 5000");
+
+        initializer.seedTable();
+
+        assertEquals(5000L, nextVal());
+    }
+
+    @Test
+    void seedTable_emptyCatalog_startsAfterTheFirstBlock() {
+        initializer.seedTable();
+
+        assertEquals(50L, nextVal());
+    }
+
+    private long nextVal() {
+        return jdbcTemplate.queryForObject("SELECT next_val FROM product_seq", Long.class);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecom.productservice.configuration;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMillis(1500));
+
+    @Test
+    void write_pinsTheRequestAndSetsTheCookieOnce() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinnedAfterWrite = new AtomicBoolean();
+
+        filter.doFilter(new MockHttpServletRequest(), response, (req, res) -> {
+            assertFalse(ReadYourWrites.isPinned());
+            ReadYourWrites.recordWrite();
+            ReadYourWrites.recordWrite();
+            pinnedAfterWrite.set(ReadYourWrites.isPinned());
+        });
+
+        assertTrue(pinnedAfterWrite.get());
+        assertEquals(1, response.getHeaders(HttpHeaders.SET_COOKIE).size());
+        String cookie = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertTrue(cookie.startsWith(ReadYourWritesFilter.COOKIE + "=1"));
+        assertTrue(cookie.contains("Max-Age=2"));
+        assertFalse(ReadYourWrites.isPinned());
+    }
+
+    @Test
+    void requestWithCookie_isPinnedWithoutWriting() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, "1"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        filter.doFilter(request, response, (req, res) -> pinned.set(ReadYourWrites.isPinned()));
+
+        assertTrue(pinned.get());
+        assertNull(response.getHeader(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void requestWithoutWrites_isNotPinned() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean(true);
+
+        filter.doFilter(new MockHttpServletRequest(), response, (req, res) -> pinned.set(ReadYourWrites.isPinned()));
+
+        assertFalse(pinned.get());
+        assertNull(response.getHeader(HttpHeaders.SET_COOKIE));
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecom.productservice.configuration;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(h2("primary"), h2("replica"));
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void readOnlyTransactions_goToReplica_everythingElseToPrimary() {
+        assertEquals("replica", readOnly.execute(status -> database()));
+        assertEquals("primary", readWrite.execute(status -> database()));
+        assertEquals("primary", database());
+    }
+
+    @Test
+    void readWriteTransaction_pinsNobody() {
+        ReadYourWrites.bind(false, () -> {});
+
+        readWrite.execute(status -> database());
+
+        assertEquals("replica", readOnly.execute(status -> database()));
+    }
+
+    @Test
+    void readsAfterRecordedWrite_stayOnPrimaryForThatCaller() {
+        AtomicInteger carriedOver = new AtomicInteger();
+        ReadYourWrites.bind(false, carriedOver::incrementAndGet);
+
+        readWrite.executeWithoutResult(status -> ReadYourWrites.recordWrite());
+        ReadYourWrites.recordWrite();
+
+        assertEquals("primary", readOnly.execute(status -> database()));
+        assertEquals(1, carriedOver.get());
+    }
+
+    @Test
+    void pinnedCaller_readsFromPrimary_otherCallersFromReplica() throws InterruptedException {
+        ReadYourWrites.bind(true, () -> {});
+        AtomicReference<String> otherCaller = new AtomicReference<>();
+        Thread other = new Thread(() -> {
+            ReadYourWrites.bind(false, () -> {});
+            try {
+                otherCaller.set(readOnly.execute(status -> database()));
+            } finally {
+                ReadYourWrites.clear();
+            }
+        });
+        other.start();
+        other.join();
+
+        assertEquals("primary", readOnly.execute(status -> database()));
+        assertEquals("replica", otherCaller.get());
+    }
+
+    @Test
+    void recordWrite_outsideARequest_pinsNothing() {
+        ReadYourWrites.recordWrite();
+
+        assertEquals("replica", readOnly.execute(status -> database()));
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class).toLowerCase(Locale.ROOT);
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
@@ -15,9 +15,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -53,6 +57,47 @@ class CategoryControllerTest {
                 .andExpect(jsonPath("$.name").value("Electronics"));
     }
 
+    @Test
+    void getAllCategories_setsEtag() throws Exception {
+        when(categoryService.getCategoriesEtag()).thenReturn("3f2a");
+        when(categoryService.getAllCategories()).thenReturn(List.of(new Category(1L, "Electronics", "Gadgets")));
+
+        mockMvc.perform(get("/category"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3f2a\""))
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(jsonPath("$[0].name").value("Electronics"));
+    }
+
+    @Test
+    void getAllCategories_ifNoneMatch_notModified() throws Exception {
+        when(categoryService.getCategoriesEtag()).thenReturn("3f2a");
+
+        mockMvc.perform(get("/category").header("If-None-Match", "\"3f2a\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(categoryService, never()).getAllCategories();
+    }
+
+    @Test
+    void getCategoryById_success() throws Exception {
+        when(categoryService.getCategoryById(1L)).thenReturn(new Category(1L, "Electronics", "Gadgets"));
+
+        mockMvc.perform(get("/category/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.name").value("Electronics"));
+    }
+
+    @Test
+    void getCategoryById_notFound() throws Exception {
+        when(categoryService.getCategoryById(2L)).thenThrow(new InvalidCategoryException("Category not found"));
+
+        mockMvc.perform(get("/category/2"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void removeCategoryById_success() throws Exception {
         doNothing().when(categoryService).deleteCategory(1L);
@@ -1,30 +1,54 @@
 package com.ecom.productservice.controllers;
 
+import com.ecom.productservice.cache.CatalogSnapshot;
+import com.ecom.productservice.cache.CatalogSnapshotBuilder;
+import com.ecom.productservice.cache.CatalogVersion;
+import com.ecom.productservice.dtos.ProductBatchItemDto;
+import com.ecom.productservice.dtos.ProductCursorPageDto;
 import com.ecom.productservice.dtos.ProductRequestDto;
 import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.dtos.ProductSearchCriteria;
 import com.ecom.productservice.dtos.UpdateProductRequestDto;
+import com.ecom.productservice.exceptions.InvalidBatchRequestException;
 import com.ecom.productservice.exceptions.InvalidCategoryException;
+import com.ecom.productservice.exceptions.InvalidCursorException;
+import com.ecom.productservice.exceptions.InvalidSortException;
 import com.ecom.productservice.exceptions.NoProductsFoundException;
 import com.ecom.productservice.exceptions.ProductNotFoundException;
 import com.ecom.productservice.security.JwtService;
 import com.ecom.productservice.services.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -45,6 +69,14 @@ class ProductControllerTest {
     @MockitoBean
     private JwtService jwtService;
 
+    @MockitoBean
+    private CatalogSnapshotBuilder catalogSnapshotBuilder;
+
+    @BeforeEach
+    void setUp() {
+        when(productService.getCatalogVersion()).thenReturn(new CatalogVersion(7, 1_700_000_000_000L));
+    }
+
     @Test
     void addProduct_success() throws Exception {
         ProductRequestDto requestDto = new ProductRequestDto();
@@ -76,11 +108,16 @@ class ProductControllerTest {
 
     @Test
     void getAllProducts_success() throws Exception {
-        List<ProductResponseDto> responseDtos = Arrays.asList(new ProductResponseDto(), new ProductResponseDto());
-        when(productService.getAllProducts()).thenReturn(responseDtos);
+        doAnswer(invocation -> {
+            Consumer<ProductResponseDto> consumer = invocation.getArgument(0);
+            consumer.accept(new ProductResponseDto());
+            consumer.accept(new ProductResponseDto());
+            return null;
+        }).when(productService).streamAllProducts(any());
 
         mockMvc.perform(get("/product/products"))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(2));
     }
 
@@ -97,6 +134,94 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.content.length()").value(2));
     }
 
+    @Test
+    void getProductsByCursor_success() throws Exception {
+        ProductCursorPageDto page = new ProductCursorPageDto(List.of(new ProductResponseDto()), "next-token");
+        when(productService.getProductsAfter("token", 1)).thenReturn(page);
+
+        mockMvc.perform(get("/product/products/scroll")
+                        .param("cursor", "token")
+                        .param("pageSize", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"));
+    }
+
+    @Test
+    void getProductsByCursor_invalidCursor() throws Exception {
+        when(productService.getProductsAfter("bad", 20)).thenThrow(new InvalidCursorException("Invalid page cursor"));
+
+        mockMvc.perform(get("/product/products/scroll").param("cursor", "bad"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchProducts_success() throws Exception {
+        Page<ProductResponseDto> page = new PageImpl<>(List.of(new ProductResponseDto()));
+        when(productService.searchProducts(any(ProductSearchCriteria.class), any(Pageable.class))).thenReturn(page);
+
+        mockMvc.perform(get("/product/search")
+                        .param("categoryId", "1")
+                        .param("brand", "BrandX")
+                        .param("page", "0")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1));
+    }
+
+    @Test
+    void searchProducts_unknownSortProperty_returnsBadRequest() throws Exception {
+        when(productService.searchProducts(any(ProductSearchCriteria.class), any(Pageable.class)))
+                .thenThrow(new InvalidSortException("Cannot sort products by description"));
+
+        mockMvc.perform(get("/product/search").param("sort", "description"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchProductsByText_success() throws Exception {
+        when(productService.searchProductsByText("phone", 20)).thenReturn(List.of(new ProductResponseDto()));
+
+        mockMvc.perform(get("/product/search/text").param("q", "phone"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void suggest_success() throws Exception {
+        when(productService.suggest("gal", 10)).thenReturn(List.of("Galaxy Phone", "Galaxy Tab"));
+
+        mockMvc.perform(get("/product/suggest").param("prefix", "gal"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Galaxy Phone"));
+    }
+
+    @Test
+    void getProductsByIds_success() throws Exception {
+        ProductResponseDto phone = ProductResponseDto.builder().id(1L).name("Phone").price(10.0).build();
+        when(productService.getProductsByIds(List.of(1L, 2L)))
+                .thenReturn(List.of(ProductBatchItemDto.found(phone), ProductBatchItemDto.notFound(2L)));
+
+        mockMvc.perform(post("/product/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].product.name").value("Phone"))
+                .andExpect(jsonPath("$[1].id").value(2))
+                .andExpect(jsonPath("$[1].found").value(false));
+    }
+
+    @Test
+    void getProductsByIds_tooMany() throws Exception {
+        when(productService.getProductsByIds(any())).thenThrow(new InvalidBatchRequestException("At most 500 ids can be requested at once"));
+
+        mockMvc.perform(post("/product/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getProductById_success() throws Exception {
         ProductResponseDto responseDto = new ProductResponseDto();
@@ -135,9 +260,99 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.name").value("UpdatedProduct"));
     }
 
+    @Test
+    void getAllProducts_setsCatalogEtag() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ProductResponseDto> consumer = invocation.getArgument(0);
+            consumer.accept(new ProductResponseDto());
+            return null;
+        }).when(productService).streamAllProducts(any());
+
+        mockMvc.perform(get("/product/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"c7-1700000000000\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void getAllProducts_ifNoneMatch_notModifiedWithoutReadingCatalog() throws Exception {
+        mockMvc.perform(get("/product/products").header("If-None-Match", "\"c7-1700000000000\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(productService, never()).streamAllProducts(any());
+    }
+
+    @Test
+    void getAllProducts_acceptsGzip_sendsSnapshot(@TempDir Path directory) throws Exception {
+        CatalogVersion version = new CatalogVersion(7, 1_700_000_000_000L);
+        Path file = Files.write(directory.resolve("catalog.json.gz"), "compressed".getBytes(StandardCharsets.UTF_8));
+        when(catalogSnapshotBuilder.snapshotAt(version)).thenReturn(Optional.of(new CatalogSnapshot(version, file, 10, 1)));
+
+        mockMvc.perform(get("/product/products").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"c7-1700000000000-gzip\""))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("compressed"));
+
+        verify(productService, never()).streamAllProducts(any());
+    }
+
+    @Test
+    void getAllProducts_noSnapshotForVersion_streams() throws Exception {
+        when(catalogSnapshotBuilder.snapshotAt(any())).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            Consumer<ProductResponseDto> consumer = invocation.getArgument(0);
+            consumer.accept(new ProductResponseDto(1L, "Phone", null, 10.0, null, 0));
+            return null;
+        }).when(productService).streamAllProducts(any());
+
+        mockMvc.perform(get("/product/products").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"c7-1700000000000\""))
+                .andExpect(jsonPath("$[0].name").value("Phone"));
+    }
+
+    @Test
+    void acceptsGzip_honoursQualityZero() {
+        assertTrue(ProductController.acceptsGzip("br, gzip;q=0.8"));
+        assertTrue(ProductController.acceptsGzip("*"));
+        assertFalse(ProductController.acceptsGzip("gzip;q=0"));
+        assertFalse(ProductController.acceptsGzip("identity"));
+        assertFalse(ProductController.acceptsGzip(null));
+    }
+
+    @Test
+    void getProductById_setsEtagFromVersionAndLastModifiedFromUpdatedAt() throws Exception {
+        ProductResponseDto responseDto = new ProductResponseDto(1L, "Laptop", null, 999.99,
+                LocalDateTime.of(2024, 1, 1, 0, 0, 0, 5_000), 4);
+        when(productService.getProductById(1L)).thenReturn(responseDto);
+
+        mockMvc.perform(get("/product/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""))
+                .andExpect(header().string("Last-Modified", "Mon, 01 Jan 2024 00:00:00 GMT"))
+                .andExpect(jsonPath("$.name").value("Laptop"));
+    }
+
+    @Test
+    void getProductById_ifNoneMatch_notModified() throws Exception {
+        ProductResponseDto responseDto = new ProductResponseDto(1L, "Laptop", null, 999.99,
+                LocalDateTime.of(2024, 1, 1, 0, 0), 4);
+        when(productService.getProductById(1L)).thenReturn(responseDto);
+
+        mockMvc.perform(get("/product/1").header("If-None-Match", "\"1-4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void getAllProducts_noProductsFound() throws Exception {
-        when(productService.getAllProducts()).thenThrow(new NoProductsFoundException("No products"));
+        doThrow(new NoProductsFoundException("No products")).when(productService).streamAllProducts(any());
 
         mockMvc.perform(get("/product/products"))
                 .andExpect(status().isBadRequest());
@@ -0,0 +1,59 @@
+package com.ecom.productservice.controllers;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.exceptions.ProductNotFoundException;
+import com.ecom.productservice.security.JwtService;
+import com.ecom.productservice.services.ReactiveProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReactiveProductController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReactiveProductService reactiveProductService;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @Test
+    void getProductById_success() throws Exception {
+        when(reactiveProductService.getProductById(1L))
+                .thenReturn(Mono.just(new ProductResponseDto(1L, "Phone", null, 10.0, null, 0)));
+
+        MvcResult result = mockMvc.perform(get("/product/reactive/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Phone"));
+    }
+
+    @Test
+    void getProductById_notFound() throws Exception {
+        when(reactiveProductService.getProductById(1L))
+                .thenReturn(Mono.error(new ProductNotFoundException("Product not found")));
+
+        MvcResult result = mockMvc.perform(get("/product/reactive/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecom.productservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogSamplingFilterTest {
+
+    private RequestLogSamplingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RequestLogSamplingFilter();
+        filter.setContext(new LoggerContext());
+    }
+
+    @Test
+    void decide_keepsOneInSampleRateRequestLines() {
+        filter.setSampleRate(10);
+        filter.start();
+
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (decide(LogMarkers.REQUEST, Level.INFO) == FilterReply.NEUTRAL) kept++;
+        }
+
+        assertTrue(kept > 700 && kept < 1300, "kept " + kept);
+    }
+
+    @Test
+    void decide_ignoresUnmarkedAndWarnEvents() {
+        filter.setSampleRate(1_000_000);
+        filter.start();
+
+        assertEquals(FilterReply.NEUTRAL, decide(null, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(MarkerFactory.getMarker("OTHER"), Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(LogMarkers.REQUEST, Level.WARN));
+    }
+
+    @Test
+    void start_rejectsNonPositiveRate() {
+        filter.setSampleRate(0);
+        filter.start();
+
+        assertFalse(filter.isStarted());
+        assertEquals(FilterReply.NEUTRAL, decide(LogMarkers.REQUEST, Level.INFO));
+    }
+
+    private FilterReply decide(Marker marker, Level level) {
+        return filter.decide(marker, null, level, "Getting product by id {}", new Object[]{1L}, null);
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecom.productservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactTrieTest {
+
+    private final CompactTrie trie = CompactTrie.builder()
+            .add("phone", "Phone", 5)
+            .add("phone case", "Phone Case", 9)
+            .add("photo frame", "Photo Frame", 2)
+            .add("laptop", "Laptop", 7)
+            .build();
+
+    @Test
+    void complete_returnsHighestWeightFirst() {
+        assertEquals(List.of("Phone Case", "Phone", "Photo Frame"), trie.complete("ph", 10));
+    }
+
+    @Test
+    void complete_stopsAtLimit() {
+        assertEquals(List.of("Phone Case"), trie.complete("p", 1));
+    }
+
+    @Test
+    void complete_unknownPrefix() {
+        assertTrue(trie.complete("tv", 10).isEmpty());
+    }
+
+    @Test
+    void complete_emptyPrefixMatchesEverything() {
+        assertEquals(List.of("Phone Case", "Laptop", "Phone", "Photo Frame"), trie.complete("", 10));
+    }
+
+    @Test
+    void complete_deduplicatesValuesReachableFromSeveralKeys() {
+        CompactTrie wordStarts = CompactTrie.builder()
+                .add("galaxy phone", "Galaxy Phone", 3)
+                .add("phone", "Galaxy Phone", 3)
+                .build();
+
+        assertEquals(List.of("Galaxy Phone"), wordStarts.complete("", 10));
+    }
+
+    @Test
+    void builder_keepsEveryValueOfAKey() {
+        CompactTrie shared = CompactTrie.builder()
+                .add("phone", "Galaxy Phone", 1)
+                .add("phone", "Pixel Phone", 4)
+                .build();
+
+        assertEquals(2, shared.size());
+        assertEquals(List.of("Pixel Phone", "Galaxy Phone"), shared.complete("pho", 10));
+    }
+
+    @Test
+    void builder_keepsHigherWeightForDuplicateKeyAndValue() {
+        CompactTrie duplicates = CompactTrie.builder()
+                .add("tv", "TV", 1)
+                .add("tv", "TV", 4)
+                .add("tv", "TV", 2)
+                .add("radio", "Radio", 3)
+                .build();
+
+        assertEquals(2, duplicates.size());
+        assertEquals(List.of("TV", "Radio"), duplicates.complete("", 10));
+    }
+
+    @Test
+    void emptyTrie() {
+        assertTrue(CompactTrie.builder().build().complete("a", 5).isEmpty());
+    }
+}
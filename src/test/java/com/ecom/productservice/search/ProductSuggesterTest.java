@@ -0,0 +1,104 @@
+package com.ecom.productservice.search;
+
+import com.ecom.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductSuggesterTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        suggester = suggester(Duration.ZERO, Duration.ofMinutes(5));
+        when(productRepository.streamSearchDocuments()).thenAnswer(invocation -> Stream.of(
+                new ProductDocument(1L, "Galaxy Phone", null, 699.0, "Samsung", null, 0),
+                new ProductDocument(2L, "Galaxy Tab", null, 499.0, "Samsung", null, 0),
+                new ProductDocument(3L, "Galaxy Tab", null, 449.0, "Samsung", null, 0)));
+        suggester.rebuild();
+    }
+
+    @Test
+    void suggest_matchesNamesAndBrandsByPrefix() {
+        assertEquals(List.of("Galaxy Tab", "Galaxy Phone"), suggester.suggest("gal", 10));
+        assertEquals(List.of("Samsung"), suggester.suggest("SAM", 10));
+    }
+
+    @Test
+    void suggest_matchesLaterWordsOfName() {
+        assertEquals(List.of("Galaxy Phone"), suggester.suggest("pho", 10));
+    }
+
+    @Test
+    void suggest_namesSharingALaterWord_areAllSuggested() {
+        when(productRepository.streamSearchDocuments()).thenAnswer(invocation -> Stream.of(
+                new ProductDocument(1L, "Galaxy Phone", null, 699.0, "Samsung", null, 0),
+                new ProductDocument(2L, "Pixel Phone", null, 599.0, "Google", null, 0),
+                new ProductDocument(3L, "Pixel Phone", null, 549.0, "Google", null, 0)));
+        suggester.rebuild();
+
+        assertEquals(List.of("Pixel Phone", "Galaxy Phone"), suggester.suggest("pho", 10));
+    }
+
+    @Test
+    void suggest_blankPrefix() {
+        assertTrue(suggester.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void refreshIfStale_rebuildsOnlyAfterChange() {
+        suggester.refreshIfStale();
+        verify(productRepository, times(1)).streamSearchDocuments();
+
+        suggester.markStale();
+        suggester.refreshIfStale();
+        verify(productRepository, times(2)).streamSearchDocuments();
+    }
+
+    @Test
+    void refreshIfStale_waitsForWritesToPause() {
+        suggester = suggester(Duration.ofHours(1), Duration.ofHours(1));
+        suggester.rebuild();
+
+        suggester.markStale();
+        suggester.refreshIfStale();
+        suggester.markStale();
+        suggester.refreshIfStale();
+
+        verify(productRepository, times(2)).streamSearchDocuments();
+    }
+
+    @Test
+    void refreshIfStale_rebuildsAfterMaxDelayWhileWritesContinue() {
+        suggester = suggester(Duration.ofHours(1), Duration.ZERO);
+        suggester.rebuild();
+
+        suggester.markStale();
+        suggester.refreshIfStale();
+
+        verify(productRepository, times(3)).streamSearchDocuments();
+    }
+
+    private ProductSuggester suggester(Duration quietPeriod, Duration maxDelay) {
+        return new ProductSuggester(productRepository, transactionManager, new SimpleMeterRegistry(),
+                Duration.ofMinutes(10), quietPeriod, maxDelay);
+    }
+}
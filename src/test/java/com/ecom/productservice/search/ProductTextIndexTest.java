@@ -0,0 +1,118 @@
+package com.ecom.productservice.search;
+
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductTextIndexTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProductTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        index = new ProductTextIndex(productRepository, transactionManager, meterRegistry);
+        when(productRepository.streamSearchDocuments()).thenReturn(Stream.of(
+                new ProductDocument(1L, "Galaxy Phone", "Android smartphone", 699.0, "Samsung", UPDATED_AT, 0),
+                new ProductDocument(2L, "Silicone Case", "Protective case for phones", 19.0, "Spigen", null, 0),
+                new ProductDocument(3L, "Laptop", "Thin and light laptop", 1299.0, "Dell", null, 0)));
+        index.rebuild();
+    }
+
+    @Test
+    void search_ranksNameMatchesAboveDescriptionMatches() {
+        List<ProductResponseDto> results = index.search("phone", 10);
+
+        assertEquals(List.of(1L, 2L), results.stream().map(ProductResponseDto::getId).toList());
+    }
+
+    @Test
+    void search_returnsUpdatedAt() {
+        assertEquals(UPDATED_AT, index.search("galaxy", 10).get(0).getUpdatedAt());
+    }
+
+    @Test
+    void search_matchesPrefixes() {
+        List<ProductResponseDto> results = index.search("lap", 10);
+
+        assertEquals(1, results.size());
+        assertEquals("Laptop", results.get(0).getName());
+    }
+
+    @Test
+    void search_matchesBrand() {
+        assertEquals(3L, index.search("DELL", 10).get(0).getId());
+    }
+
+    @Test
+    void search_respectsLimit() {
+        assertEquals(1, index.search("phone", 1).size());
+    }
+
+    @Test
+    void index_replacesExistingDocument() {
+        index.index(new ProductDocument(3L, "Gaming Laptop", "RGB keyboard", 1999.0, "Dell", null, 0));
+
+        assertEquals("Gaming Laptop", index.search("gaming", 10).get(0).getName());
+        assertTrue(index.search("thin", 10).isEmpty());
+        assertEquals(3, index.documentCount());
+    }
+
+    @Test
+    void remove_dropsDocumentAndOrphanTerms() {
+        int terms = index.termCount();
+
+        index.remove(3L);
+
+        assertTrue(index.search("laptop", 10).isEmpty());
+        assertEquals(2, index.documentCount());
+        assertTrue(index.termCount() < terms);
+    }
+
+    @Test
+    void metrics_reportSizeAndBuildTime() {
+        assertTrue(meterRegistry.get("product.search.index.memory").gauge().value() > 0);
+        assertEquals(3, meterRegistry.get("product.search.index.documents").gauge().value());
+        assertEquals(1, meterRegistry.get("product.search.index.build").timer().count());
+    }
+
+    @Test
+    void memoryEstimate_followsUpdatesAndReturnsToBaselineOnRemove() {
+        long built = index.estimatedMemoryBytes();
+
+        index.index(new ProductDocument(4L, "Wireless Earbuds", "Noise cancelling", 149.0, "Sony", null, 0));
+        assertTrue(index.estimatedMemoryBytes() > built);
+        assertEquals(index.estimatedMemoryBytes(), meterRegistry.get("product.search.index.memory").gauge().value());
+
+        index.remove(4L);
+        assertEquals(built, index.estimatedMemoryBytes());
+    }
+
+    @Test
+    void tokenize_splitsOnPunctuationAndLowercases() {
+        assertEquals(List.of("usb", "c", "charger"), ProductTextIndex.tokenize("USB-C  Charger!"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecom.productservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "MySuperStrongJWTSecretKeyForEcommerceApp123456";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        jwtService = new JwtService(properties);
+    }
+
+    @Test
+    void verify_validToken_returnsUsernameAndRoles() {
+        String token = token(SECRET, System.currentTimeMillis() + 60_000);
+
+        Optional<JwtService.VerifiedToken> verified = jwtService.verify(token);
+
+        assertTrue(verified.isPresent());
+        assertEquals("admin@example.com", verified.get().username());
+        assertEquals(List.of("ROLE_ADMIN"), verified.get().roles());
+        // Second call is a cache hit and must answer the same
+        assertEquals(verified, jwtService.verify(token));
+    }
+
+    @Test
+    void verify_wrongSignature_isEmpty() {
+        String token = token("AnotherSecretKeyThatIsLongEnoughForHmacSha256", System.currentTimeMillis() + 60_000);
+
+        assertTrue(jwtService.verify(token).isEmpty());
+        assertFalse(jwtService.isValid(token));
+    }
+
+    @Test
+    void verify_expiredToken_isEmpty() {
+        String token = token(SECRET, System.currentTimeMillis() - 1_000);
+
+        assertTrue(jwtService.verify(token).isEmpty());
+    }
+
+    @Test
+    void verify_malformedToken_isEmpty() {
+        assertTrue(jwtService.verify("not-a-jwt").isEmpty());
+    }
+
+    private static String token(String secret, long expiresAt) {
+        return Jwts.builder()
+                .setSubject("admin@example.com")
+                .claim("roles", List.of("ROLE_ADMIN"))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecom.productservice.services;
 
+import com.ecom.productservice.cache.CategoryDictionary;
 import com.ecom.productservice.dtos.CategoryRequestDto;
 import com.ecom.productservice.exceptions.InvalidCategoryException;
 import com.ecom.productservice.models.Category;
@@ -10,6 +11,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,6 +22,9 @@ class CategoryServiceImplTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CategoryDictionary categoryDictionary;
+
     @InjectMocks
     private CategoryServiceImpl categoryService;
 
@@ -39,6 +44,7 @@ class CategoryServiceImplTest {
         Category result = categoryService.addCategory(dto);
         assertNotNull(result);
         verify(categoryRepository, times(1)).save(any(Category.class));
+        verify(categoryDictionary).changed();
     }
 
     @Test
@@ -48,6 +54,7 @@ class CategoryServiceImplTest {
         doNothing().when(categoryRepository).delete(category);
         categoryService.deleteCategory(1L);
         verify(categoryRepository, times(1)).delete(category);
+        verify(categoryDictionary).changed();
     }
 
     @Test
@@ -55,6 +62,23 @@ class CategoryServiceImplTest {
         when(categoryRepository.findByCategoryId(2L)).thenReturn(Optional.empty());
         assertThrows(InvalidCategoryException.class, () -> categoryService.deleteCategory(2L));
         verify(categoryRepository, never()).delete(any(Category.class));
+        verify(categoryDictionary, never()).changed();
+    }
+
+    @Test
+    void getAllCategories_readsDictionary() {
+        Category category = new Category(1L, "Electronics", "Electronic items");
+        when(categoryDictionary.all()).thenReturn(List.of(category));
+
+        assertEquals(List.of(category), categoryService.getAllCategories());
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void getCategoryById_notFound() {
+        when(categoryDictionary.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(InvalidCategoryException.class, () -> categoryService.getCategoryById(2L));
     }
 }
 
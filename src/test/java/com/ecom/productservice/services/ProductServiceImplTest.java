@@ -1,27 +1,64 @@
 package com.ecom.productservice.services;
 
+import com.ecom.productservice.cache.CatalogVersionTracker;
+import com.ecom.productservice.cache.CategoryDictionary;
+import com.ecom.productservice.cache.ProductCache;
+import com.ecom.productservice.cache.ProductCacheProperties;
+import com.ecom.productservice.cache.ProductCacheWriteBehind;
+import com.ecom.productservice.dtos.ProductBatchItemDto;
+import com.ecom.productservice.dtos.ProductCursorPageDto;
 import com.ecom.productservice.dtos.ProductRequestDto;
+import com.ecom.productservice.configuration.ApplicationConfiguration;
+import com.ecom.productservice.configuration.ReadYourWritesFilter;
 import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.dtos.ProductSearchCriteria;
 import com.ecom.productservice.dtos.UpdateProductRequestDto;
+import com.ecom.productservice.exceptions.InvalidBatchRequestException;
 import com.ecom.productservice.exceptions.InvalidCategoryException;
+import com.ecom.productservice.exceptions.InvalidCursorException;
+import com.ecom.productservice.exceptions.InvalidSortException;
 import com.ecom.productservice.exceptions.NoProductsFoundException;
+import com.ecom.productservice.exceptions.PartialIngestException;
 import com.ecom.productservice.exceptions.ProductNotFoundException;
 import com.ecom.productservice.mappers.ProductMapper;
 import com.ecom.productservice.models.Category;
 import com.ecom.productservice.models.Product;
-import com.ecom.productservice.repositories.CategoryRepository;
 import com.ecom.productservice.repositories.ProductRepository;
+import com.ecom.productservice.search.ProductDocument;
+import com.ecom.productservice.search.ProductSuggester;
+import com.ecom.productservice.search.ProductTextIndex;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.HashOperations;
-
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Mockito.*;
 
 class ProductServiceImplTest {
@@ -30,7 +67,7 @@ class ProductServiceImplTest {
     private ProductRepository productRepository;
 
     @Mock
-    private CategoryRepository categoryRepository;
+    private CategoryDictionary categoryDictionary;
 
     @Mock
     private RedisTemplate redisTemplate;
@@ -38,7 +75,29 @@ class ProductServiceImplTest {
     @Mock
     private HashOperations hashOperations;
 
-    @InjectMocks
+    @Mock
+    private RedisConnection redisConnection;
+
+    @Mock
+    private RedisScriptingCommands scriptingCommands;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductTextIndex productTextIndex;
+
+    @Mock
+    private ProductSuggester productSuggester;
+
+    @Mock
+    private CatalogVersionTracker catalogVersionTracker;
+
+    @Mock
+    private ProductCacheWriteBehind productCacheWriteBehind;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private ProductServiceImpl productService;
 
     private Category category;
@@ -48,6 +107,9 @@ class ProductServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        productService = new ProductServiceImpl(productRepository, categoryDictionary,
+                new ProductCache(redisTemplate, new ProductCacheProperties(), meterRegistry), catalogVersionTracker, productCacheWriteBehind, transactionManager,
+                new ProductIngestProperties(), productTextIndex, productSuggester, meterRegistry);
 
         category = new Category();
         category.setCategoryId(1L);
@@ -67,38 +129,132 @@ class ProductServiceImplTest {
         requestDto.setCategoryId(1L);
 
         when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(redisTemplate.getKeySerializer()).thenReturn(StringRedisSerializer.UTF_8);
+        doReturn(StringRedisSerializer.UTF_8).when(redisTemplate).getHashKeySerializer();
+        doReturn(new ApplicationConfiguration().redisTemplate(null, new ProductCacheProperties()).getHashValueSerializer())
+                .when(redisTemplate).getHashValueSerializer();
+        when(redisConnection.scriptingCommands()).thenReturn(scriptingCommands);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, RedisCallback.class).doInRedis(redisConnection);
+            return List.of();
+        });
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void verifyVersionedPut(String field) {
+        verify(redisTemplate).execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class), eq(List.of("PRODUCTS", "PRODUCT_ROW_VERSIONS")),
+                aryEq(bytes(field)), any(), any());
+    }
+
+    private void verifyPipelinedPut(String field) {
+        verify(scriptingCommands).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(2),
+                aryEq(bytes("PRODUCTS")), aryEq(bytes("PRODUCT_ROW_VERSIONS")), aryEq(bytes(field)), any(), any());
+    }
+
+    private Cursor<Map.Entry<Object, Object>> cursorOf(Map.Entry<Object, Object>... entries) {
+        Cursor<Map.Entry<Object, Object>> cursor = mock(Cursor.class);
+        Iterator<Map.Entry<Object, Object>> iterator = List.of(entries).iterator();
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        when(hashOperations.scan(eq("PRODUCTS"), any(ScanOptions.class))).thenReturn(cursor);
+        return cursor;
     }
 
     @Test
     void testAddProduct_Success() throws InvalidCategoryException {
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryDictionary.findById(1L)).thenReturn(Optional.of(category));
         when(productRepository.save(any(Product.class))).thenReturn(product);
 
         ProductResponseDto response = productService.addProduct(requestDto);
 
         assertEquals("Phone", response.getName());
         verify(productRepository, times(1)).save(any(Product.class));
-        verify(hashOperations, times(1)).put(eq("PRODUCTS"), anyString(), any());
+        verify(productCacheWriteBehind).enqueue(List.of(100L));
+        verifyNoInteractions(redisTemplate);
+        verify(productTextIndex).index(ProductDocument.from(product));
+        verify(productSuggester).markStale();
     }
 
     @Test
     void testAddProduct_InvalidCategory() {
-        when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(categoryDictionary.findById(1L)).thenReturn(Optional.empty());
 
         assertThrows(InvalidCategoryException.class, () -> productService.addProduct(requestDto));
     }
 
     @Test
-    void testAddAllProducts_Success() throws InvalidCategoryException {
+    void testAddAllProducts_Success() throws Exception {
         List<ProductRequestDto> requestList = List.of(requestDto);
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
+        when(categoryDictionary.findById(1L)).thenReturn(Optional.of(category));
         when(productRepository.saveAll(anyList())).thenReturn(List.of(product));
 
         List<ProductResponseDto> responseList = productService.addAllProducts(requestList);
 
         assertEquals(1, responseList.size());
         assertEquals("Phone", responseList.get(0).getName());
-        verify(hashOperations, times(1)).put(eq("PRODUCTS"), anyString(), any());
+        verify(productCacheWriteBehind).enqueue(List.of(100L));
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void testAddAllProducts_ResolvesCategoriesOnceAndChunks() throws Exception {
+        ProductIngestProperties ingestProperties = new ProductIngestProperties();
+        ingestProperties.setChunkSize(2);
+        productService = new ProductServiceImpl(productRepository, categoryDictionary,
+                new ProductCache(redisTemplate, new ProductCacheProperties(), meterRegistry), catalogVersionTracker, productCacheWriteBehind, transactionManager, ingestProperties,
+                productTextIndex, productSuggester, meterRegistry);
+        List<ProductRequestDto> requestList = List.of(requestDto, requestDto, requestDto);
+        when(categoryDictionary.findById(1L)).thenReturn(Optional.of(category));
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Product> chunk = invocation.getArgument(0);
+            chunk.forEach(p -> p.setProductId(100L));
+            return chunk;
+        });
+
+        List<ProductResponseDto> responseList = productService.addAllProducts(requestList);
+
+        assertEquals(3, responseList.size());
+        verify(categoryDictionary, times(1)).findById(1L);
+        verify(productRepository, times(2)).saveAll(anyList());
+        verify(productCacheWriteBehind, times(2)).enqueue(anyList());
+        assertEquals(3.0, meterRegistry.get("product.ingest.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void testAddAllProducts_FailedChunk_ReportsSavedRangeAndResumeIndex() {
+        ProductIngestProperties ingestProperties = new ProductIngestProperties();
+        ingestProperties.setChunkSize(2);
+        productService = new ProductServiceImpl(productRepository, categoryDictionary,
+                new ProductCache(redisTemplate, new ProductCacheProperties(), meterRegistry), catalogVersionTracker, productCacheWriteBehind, transactionManager, ingestProperties,
+                productTextIndex, productSuggester, meterRegistry);
+        when(categoryDictionary.findById(1L)).thenReturn(Optional.of(category));
+        AtomicLong nextId = new AtomicLong(100);
+        when(productRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Product> chunk = invocation.getArgument(0);
+            chunk.forEach(p -> p.setProductId(nextId.getAndIncrement()));
+            return chunk;
+        }).thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+
+        PartialIngestException e = assertThrows(PartialIngestException.class,
+                () -> productService.addAllProducts(List.of(requestDto, requestDto, requestDto)));
+
+        assertEquals(2, e.getSavedCount());
+        assertEquals(100L, e.getFirstSavedId());
+        assertEquals(101L, e.getLastSavedId());
+        assertEquals(2, e.getResumeFrom());
+        assertEquals("Saved 2 of 3 products (ids 100 to 101); resend from index 2", e.getMessage());
+        verify(productCacheWriteBehind, times(1)).enqueue(anyList());
+    }
+
+    @Test
+    void testAddAllProducts_UnknownCategory() {
+        when(categoryDictionary.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(InvalidCategoryException.class, () -> productService.addAllProducts(List.of(requestDto)));
+        verify(productRepository, never()).saveAll(anyList());
     }
 
     @Test
@@ -108,13 +264,18 @@ class ProductServiceImplTest {
         productService.removeProductById(100L);
 
         verify(productRepository, times(1)).deleteById(100L);
+        verify(productCacheWriteBehind).enqueue(List.of(100L));
+        verifyNoInteractions(redisTemplate);
+        verify(productTextIndex).remove(100L);
     }
 
+
     @Test
     void testRemoveProductById_NotFound() {
         when(productRepository.findById(100L)).thenReturn(Optional.empty());
 
         assertThrows(ProductNotFoundException.class, () -> productService.removeProductById(100L));
+        verify(productCacheWriteBehind, never()).enqueue(any());
     }
 
     @Test
@@ -130,7 +291,8 @@ class ProductServiceImplTest {
         ProductResponseDto response = productService.updateProduct(updateDto);
 
         assertEquals("Updated Phone", response.getName());
-        verify(hashOperations, times(1)).put(eq("PRODUCTS"), anyString(), any());
+        verify(productCacheWriteBehind).enqueue(List.of(100L));
+        verifyNoInteractions(redisTemplate);
     }
 
     @Test
@@ -144,44 +306,80 @@ class ProductServiceImplTest {
     }
 
     @Test
-    void testGetAllProducts_FromCache() throws NoProductsFoundException {
-        ProductResponseDto dto = ProductMapper.toDto(product);
-        when(hashOperations.values("PRODUCTS")).thenReturn(List.of(dto));
+    void testStreamAllProducts_FromCache() throws NoProductsFoundException {
+        when(hashOperations.hasKey("PRODUCTS", "__COMPLETE__")).thenReturn(true);
+        Cursor<Map.Entry<Object, Object>> cursor = cursorOf(Map.entry("PRODUCT_100", ProductMapper.toDto(product)),
+                Map.entry("__COMPLETE__", "1700000000000"));
 
-        List<ProductResponseDto> response = productService.getAllProducts();
+        List<ProductResponseDto> streamed = new ArrayList<>();
+        productService.streamAllProducts(streamed::add);
 
-        assertEquals(1, response.size());
-        assertEquals("Phone", response.get(0).getName());
+        assertEquals(1, streamed.size());
+        verify(cursor).close();
+        verify(productRepository, never()).streamAllProducts();
     }
 
     @Test
-    void testGetAllProducts_FromDB() throws NoProductsFoundException {
-        when(hashOperations.values("PRODUCTS")).thenReturn(Collections.emptyList());
-        when(productRepository.findAll()).thenReturn(List.of(product));
-
-        List<ProductResponseDto> response = productService.getAllProducts();
-
-        assertEquals(1, response.size());
-        verify(productRepository, times(1)).findAll();
+    void testStreamAllProducts_FromDB() throws NoProductsFoundException {
+        when(hashOperations.hasKey("PRODUCTS", "__COMPLETE__")).thenReturn(false);
+        when(productRepository.streamAllProducts()).thenReturn(Stream.of(ProductMapper.toDto(product)));
+
+        List<ProductResponseDto> streamed = new ArrayList<>();
+        productService.streamAllProducts(streamed::add);
+
+        assertEquals(1, streamed.size());
+        assertEquals("Phone", streamed.get(0).getName());
+        verify(hashOperations, never()).scan(anyString(), any(ScanOptions.class));
+        verifyPipelinedPut("PRODUCT_100");
+        verify(hashOperations).put(eq("PRODUCTS"), eq("__COMPLETE__"), any());
     }
 
     @Test
-    void testGetAllProducts_NoProductsFound() {
-        when(hashOperations.values("PRODUCTS")).thenReturn(Collections.emptyList());
-        when(productRepository.findAll()).thenReturn(Collections.emptyList());
+    void testStreamAllProducts_NoProductsFound() {
+        when(productRepository.streamAllProducts()).thenReturn(Stream.empty());
 
-        assertThrows(NoProductsFoundException.class, () -> productService.getAllProducts());
+        assertThrows(NoProductsFoundException.class, () -> productService.streamAllProducts(p -> { }));
+        verify(hashOperations, never()).put(eq("PRODUCTS"), eq("__COMPLETE__"), any());
     }
 
     @Test
     void testGetAllProducts_Paginated() {
-        Page<Product> productPage = new PageImpl<>(List.of(product));
-        when(productRepository.findAll(any(PageRequest.class))).thenReturn(productPage);
+        Page<ProductResponseDto> productPage = new PageImpl<>(List.of(ProductMapper.toDto(product)));
+        when(productRepository.findAllResponses(any(Pageable.class))).thenReturn(productPage);
 
         Page<ProductResponseDto> result = productService.getAllProducts(0, 10);
 
         assertEquals(1, result.getTotalElements());
-        verify(productRepository, times(1)).findAll(any(PageRequest.class));
+        verify(productRepository, times(1)).findAllResponses(any(Pageable.class));
+    }
+
+    @Test
+    void testGetProductsAfter_FirstPageHasNextCursor() throws InvalidCursorException {
+        ProductResponseDto first = ProductResponseDto.builder().id(1L).price(10.0).build();
+        ProductResponseDto second = ProductResponseDto.builder().id(2L).price(20.0).build();
+        when(productRepository.findFirstPageByPrice(Limit.of(2))).thenReturn(List.of(first, second));
+
+        ProductCursorPageDto page = productService.getProductsAfter(null, 1);
+
+        assertEquals(List.of(first), page.getContent());
+        assertEquals(new ProductPageCursor(10.0, 1L), ProductPageCursor.decode(page.getNextCursor()));
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    void testGetProductsAfter_SeeksPastCursor() throws InvalidCursorException {
+        ProductResponseDto last = ProductResponseDto.builder().id(7L).price(30.0).build();
+        when(productRepository.findPageByPriceAfter(20.0, 2L, Limit.of(11))).thenReturn(List.of(last));
+
+        ProductCursorPageDto page = productService.getProductsAfter(new ProductPageCursor(20.0, 2L).encode(), 10);
+
+        assertEquals(List.of(last), page.getContent());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testGetProductsAfter_InvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> productService.getProductsAfter("not-a-cursor", 10));
     }
 
     @Test
@@ -192,36 +390,146 @@ class ProductServiceImplTest {
         ProductResponseDto response = productService.getProductById(100L);
 
         assertEquals("Phone", response.getName());
-        verify(productRepository, never()).findById(anyLong());
+        verify(productRepository, never()).findResponseById(anyLong());
     }
 
     @Test
     void testGetProductById_FromDB() throws ProductNotFoundException {
         when(hashOperations.get("PRODUCTS", "PRODUCT_100")).thenReturn(null);
-        when(productRepository.findById(100L)).thenReturn(Optional.of(product));
+        when(productRepository.findResponseById(100L)).thenReturn(Optional.of(ProductMapper.toDto(product)));
 
         ProductResponseDto response = productService.getProductById(100L);
 
         assertEquals("Phone", response.getName());
-        verify(hashOperations, times(1)).put(eq("PRODUCTS"), eq("PRODUCT_100"), any());
+        verifyVersionedPut("PRODUCT_100");
+    }
+
+    @Test
+    void testGetProductById_PinnedCallerSkipsTheCache() throws Exception {
+        when(hashOperations.get("PRODUCTS", "PRODUCT_100")).thenReturn(ProductMapper.toDto(product));
+        Product updated = new Product();
+        updated.setProductId(100L);
+        updated.setName("Phone 2");
+        updated.setCategory(category);
+        when(productRepository.findResponseById(100L)).thenReturn(Optional.of(ProductMapper.toDto(updated)));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("product-read-primary", "1"));
+        List<ProductResponseDto> read = new ArrayList<>();
+
+        new ReadYourWritesFilter(Duration.ofSeconds(2)).doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> {
+                    try {
+                        read.add(productService.getProductById(100L));
+                    } catch (ProductNotFoundException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+
+        assertEquals("Phone 2", read.get(0).getName());
+        verify(hashOperations, never()).get(anyString(), any());
     }
 
     @Test
     void testGetProductById_NotFound() {
         when(hashOperations.get("PRODUCTS", "PRODUCT_100")).thenReturn(null);
-        when(productRepository.findById(100L)).thenReturn(Optional.empty());
+        when(productRepository.findResponseById(100L)).thenReturn(Optional.empty());
 
         assertThrows(ProductNotFoundException.class, () -> productService.getProductById(100L));
     }
 
     @Test
-    void testSearchProducts() {
-        when(productRepository.findByFilters(any(), any(), any(), any())).thenReturn(List.of(product));
+    void testGetProductsByIds_CacheThenDatabaseInInputOrder() throws InvalidBatchRequestException {
+        ProductResponseDto cached = ProductResponseDto.builder().id(7L).name("Case").price(5.0).build();
+        when(hashOperations.multiGet("PRODUCTS", List.of("PRODUCT_100", "PRODUCT_7", "PRODUCT_55")))
+                .thenReturn(Arrays.asList(null, cached, null));
+        when(productRepository.findResponsesByIdIn(List.of(100L, 55L))).thenReturn(List.of(ProductMapper.toDto(product)));
+
+        List<ProductBatchItemDto> results = productService.getProductsByIds(List.of(100L, 7L, 55L, 100L));
+
+        assertEquals(List.of(100L, 7L, 55L, 100L), results.stream().map(ProductBatchItemDto::getId).toList());
+        assertEquals("Phone", results.get(0).getProduct().getName());
+        assertEquals("Case", results.get(1).getProduct().getName());
+        assertFalse(results.get(2).isFound());
+        assertNull(results.get(2).getProduct());
+        assertTrue(results.get(3).isFound());
+        verify(hashOperations, times(1)).multiGet(anyString(), anyCollection());
+        verify(productRepository, never()).findResponseById(anyLong());
+        verifyPipelinedPut("PRODUCT_100");
+    }
+
+    @Test
+    void testGetProductsByIds_AllCached() throws InvalidBatchRequestException {
+        when(hashOperations.multiGet("PRODUCTS", List.of("PRODUCT_100"))).thenReturn(List.of(ProductMapper.toDto(product)));
+
+        assertTrue(productService.getProductsByIds(List.of(100L)).get(0).isFound());
+        verify(productRepository, never()).findResponsesByIdIn(any());
+    }
+
+    @Test
+    void testGetProductsByIds_TooMany() {
+        List<Long> ids = java.util.stream.LongStream.rangeClosed(1, 501).boxed().toList();
+
+        assertThrows(InvalidBatchRequestException.class, () -> productService.getProductsByIds(ids));
+        verify(hashOperations, never()).multiGet(anyString(), anyCollection());
+    }
+
+    @Test
+    void testSearchProducts() throws InvalidSortException {
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(product)));
+
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder()
+                .categoryId(1L).brand("BrandX").minPrice(100.0).maxPrice(2000.0).build();
+        Page<ProductResponseDto> result = productService.searchProducts(criteria, PageRequest.of(0, 20));
+
+        assertEquals(1, result.getContent().size());
+        assertEquals("Phone", result.getContent().get(0).getName());
+        verify(productRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+        verify(categoryDictionary, never()).findIdByName(anyString());
+    }
+
+    @Test
+    void testSearchProducts_ResolvesCategoryName() throws InvalidSortException {
+        when(categoryDictionary.findIdByName("Electronics")).thenReturn(Optional.of(1L));
+        when(productRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(product)));
+
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder().category("Electronics").build();
+        Page<ProductResponseDto> result = productService.searchProducts(criteria, PageRequest.of(0, 20));
+
+        assertEquals(1, result.getContent().size());
+    }
+
+    @Test
+    void testSearchProducts_UnknownCategoryName() throws InvalidSortException {
+        when(categoryDictionary.findIdByName("Unknown")).thenReturn(Optional.empty());
+
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder().category("Unknown").build();
+        Page<ProductResponseDto> result = productService.searchProducts(criteria, PageRequest.of(0, 20));
+
+        assertTrue(result.isEmpty());
+        verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void testSearchProducts_UnknownSortProperty() {
+        ProductSearchCriteria criteria = ProductSearchCriteria.builder().brand("BrandX").build();
+
+        assertThrows(InvalidSortException.class,
+                () -> productService.searchProducts(criteria, PageRequest.of(0, 20, Sort.by("description"))));
+        // No index covers name, so it would sort every matching row
+        assertThrows(InvalidSortException.class,
+                () -> productService.searchProducts(criteria, PageRequest.of(0, 20, Sort.by("name"))));
+        verify(productRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void testSearchProductsByText() {
+        when(productTextIndex.search("phone", 5)).thenReturn(List.of(ProductMapper.toDto(product)));
 
-        List<ProductResponseDto> result = productService.searchProducts("Electronics", "BrandX", 100.0, 2000.0);
+        List<ProductResponseDto> result = productService.searchProductsByText("phone", 5);
 
         assertEquals(1, result.size());
-        assertEquals("Phone", result.get(0).getName());
-        verify(productRepository, times(1)).findByFilters(any(), any(), any(), any());
+        verifyNoInteractions(productRepository);
     }
 }
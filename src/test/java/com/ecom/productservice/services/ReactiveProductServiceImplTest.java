@@ -0,0 +1,92 @@
+package com.ecom.productservice.services;
+
+import com.ecom.productservice.cache.ReactiveProductCache;
+import com.ecom.productservice.dtos.ProductResponseDto;
+import com.ecom.productservice.dtos.ProductSearchCriteria;
+import com.ecom.productservice.exceptions.InvalidSortException;
+import com.ecom.productservice.exceptions.ProductNotFoundException;
+import com.ecom.productservice.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReactiveProductServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ReactiveProductCache reactiveProductCache;
+
+    @Mock
+    private ProductService productService;
+
+    private ReactiveProductServiceImpl reactiveProductService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        reactiveProductService = new ReactiveProductServiceImpl(productRepository, reactiveProductCache, productService);
+        when(reactiveProductCache.put(any())).thenReturn(Mono.just(true));
+    }
+
+    @Test
+    void getProductById_cacheHit_skipsDatabase() {
+        ProductResponseDto cached = new ProductResponseDto(1L, "Phone", null, 10.0, null, 0);
+        when(reactiveProductCache.get(1L)).thenReturn(Mono.just(cached));
+
+        StepVerifier.create(reactiveProductService.getProductById(1L))
+                .expectNext(cached)
+                .verifyComplete();
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getProductById_cacheMiss_loadsAndBackfills() {
+        ProductResponseDto product = new ProductResponseDto(1L, "Phone", null, 10.0, null, 0);
+        when(reactiveProductCache.get(1L)).thenReturn(Mono.empty());
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.of(product));
+
+        StepVerifier.create(reactiveProductService.getProductById(1L))
+                .expectNextMatches(dto -> dto.getId() == 1L && dto.getName().equals("Phone"))
+                .verifyComplete();
+
+        verify(reactiveProductCache).put(argThat(dto -> dto.getId() == 1L));
+    }
+
+    @Test
+    void getProductById_notFound() {
+        when(reactiveProductCache.get(1L)).thenReturn(Mono.empty());
+        when(productRepository.findResponseById(1L)).thenReturn(Optional.empty());
+
+        StepVerifier.create(reactiveProductService.getProductById(1L))
+                .expectError(ProductNotFoundException.class)
+                .verify();
+
+        verify(reactiveProductCache, never()).put(any());
+    }
+
+    @Test
+    void searchProducts_delegatesToBlockingService() throws InvalidSortException {
+        ProductSearchCriteria criteria = new ProductSearchCriteria(null, null, "Samsung", null, null);
+        PageRequest pageable = PageRequest.of(0, 20);
+        PageImpl<ProductResponseDto> page = new PageImpl<>(List.of(new ProductResponseDto()));
+        when(productService.searchProducts(criteria, pageable)).thenReturn(page);
+
+        StepVerifier.create(reactiveProductService.searchProducts(criteria, pageable))
+                .expectNext(page)
+                .verifyComplete();
+    }
+}